@@ -0,0 +1,117 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+/**
+ * Adapts the overall number of concurrent subrequests to the observed load, in the style of
+ * additive-increase/multiplicative-decrease (AIMD) congestion control.
+ *
+ * <p>Each completed concurrent subrequest reports the time it spent waiting in the executor queue along with the
+ * time it spent running.  When a task waits longer than it runs, the executor is oversubscribed and the limit is
+ * decreased multiplicatively, at most once per task run time.  Otherwise, the limit is increased additively, up to
+ * {@link Executors#getPreferredConcurrency()}.</p>
+ *
+ * <p>The limit is then divided between all concurrent requests by {@link #getBudget(int)}.</p>
+ *
+ * @see  ConcurrencyCoordinator#getConcurrencyBudget(jakarta.servlet.ServletRequest)
+ */
+final class AdaptiveConcurrencyLimit {
+
+  /**
+   * The factor applied to the limit when the executor is oversubscribed.
+   */
+  private static final double DECREASE_FACTOR = 0.75;
+
+  private final int maxLimit;
+
+  /**
+   * The current limit, only accessed while holding the lock.
+   */
+  private double limit;
+
+  /**
+   * The {@link System#nanoTime()} of the most recent decrease, only accessed while holding the lock.
+   */
+  private long lastDecrease;
+
+  /**
+   * The most recently computed limit, for lock-free reads.
+   */
+  private volatile int currentLimit;
+
+  AdaptiveConcurrencyLimit(int maxLimit) {
+    if (maxLimit < 1) {
+      throw new IllegalArgumentException("maxLimit < 1: " + maxLimit);
+    }
+    this.maxLimit = maxLimit;
+    this.limit = maxLimit;
+    this.lastDecrease = System.nanoTime();
+    this.currentLimit = maxLimit;
+  }
+
+  /**
+   * Gets the current overall limit, between one and the preferred concurrency.
+   */
+  int getLimit() {
+    return currentLimit;
+  }
+
+  /**
+   * Records the timing of one completed subrequest.
+   *
+   * @param  waitNanos  the time spent queued in the executor before running
+   * @param  runNanos   the time spent running
+   */
+  synchronized void onSample(long waitNanos, long runNanos) {
+    if (waitNanos > runNanos) {
+      // Oversubscribed, decrease once per approximate round-trip
+      long now = System.nanoTime();
+      if (now - lastDecrease >= runNanos) {
+        lastDecrease = now;
+        limit = Math.max(1, limit * DECREASE_FACTOR);
+      }
+    } else {
+      // Increase by one over the span of a full limit of samples
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+    currentLimit = (int) limit;
+  }
+
+  /**
+   * Gets the fair share of the current limit for one request, given the current overall request concurrency.
+   * This is rounded up, so that a request will be allowed concurrency whenever the request concurrency is less
+   * than the limit.
+   *
+   * @param  requestConcurrency  the number of requests currently being processed, including the current request
+   *
+   * @return  the number of subrequests the request may have in progress at once, always at least one
+   */
+  int getBudget(int requestConcurrency) {
+    int l = currentLimit;
+    if (requestConcurrency <= 1) {
+      return l;
+    }
+    return Math.max(1, (l + requestConcurrency - 1) / requestConcurrency);
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.lang.validation.ValidationException;
+import com.aoapps.net.Path;
+import com.semanticcms.core.model.BookRef;
+import com.semanticcms.core.model.PageRef;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the resource directories of each {@link ServletBook} for changes to page sources, and maps each changed
+ * file back to its {@link PageRef}.  This allows longer-lived caches to drop exactly the pages that changed instead
+ * of relying on a TTL alone.
+ *
+ * <p>Page sources are "*.jspx" and "*.jsp" files, with "index" mapping to the directory itself.  Other files are
+ * ignored, other than reporting the creation of any file in a book and each changed file for the {@link ResourceIndex}.
+ * New directories are watched as they are created, with any files already within them reported as created.  When
+ * the watch service overflows, all pages are considered changed.</p>
+ *
+ * <p>Disabled by default, enabled by setting the context init parameter
+ * "{@code com.semanticcms.core.controller.SemanticCMS.watchSources}" to "true".</p>
+ *
+ * @see  SemanticCMS#getBookChangeMonitor()
+ */
+final class BookChangeMonitor implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(BookChangeMonitor.class.getName());
+
+  private static final String[] PAGE_EXTENSIONS = {".jspx", ".jsp"};
+
+  private static final String INDEX = "index";
+
+  /**
+   * The book and book-relative directory of a watched directory.
+   */
+  private static final class Watched {
+
+    private final BookRef bookRef;
+
+    /**
+     * The book-relative path of this directory, always ending in a slash.
+     */
+    private final String path;
+
+    private final java.nio.file.Path directory;
+
+    private Watched(BookRef bookRef, String path, java.nio.file.Path directory) {
+      this.bookRef = bookRef;
+      this.path = path;
+      this.directory = directory;
+    }
+  }
+
+  private final WatchService watchService;
+
+  private final Map<WatchKey, Watched> watched = new ConcurrentHashMap<>();
+
+  private final Consumer<PageRef> changed;
+
+  private final Consumer<BookRef> created;
+
+  private final BiConsumer<BookRef, String> fileChanged;
+
+  private final Runnable overflow;
+
+  private final Thread thread;
+
+  /**
+   * @param  changed      called with each changed page
+   * @param  created      called with the book of each created file, including files that are not page sources
+   * @param  fileChanged  called with the book and book-relative path of each created, modified, or deleted file
+   * @param  overflow     called when changes may have been lost, all pages should be considered changed
+   */
+  BookChangeMonitor(
+      Collection<Book> books,
+      Consumer<PageRef> changed,
+      Consumer<BookRef> created,
+      BiConsumer<BookRef, String> fileChanged,
+      Runnable overflow
+  ) throws IOException {
+    this.changed = changed;
+    this.created = created;
+    this.fileChanged = fileChanged;
+    this.overflow = overflow;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    try {
+      for (Book book : books) {
+        if (book instanceof ServletBook) {
+          for (File directory : ((ServletBook) book).getResourceDirectories()) {
+            if (directory.isDirectory()) {
+              registerAll(book.getBookRef(), "/", directory.toPath(), null, null);
+            }
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      watchService.close();
+      throw e;
+    }
+    thread = new Thread(this::run, BookChangeMonitor.class.getName());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Registers a directory and all its subdirectories.
+   *
+   * @param  paths     when not {@code null}, the book-relative path of each file found is added
+   * @param  pageRefs  when not {@code null}, the page of each page source found is added
+   */
+  private void registerAll(
+      BookRef bookRef,
+      String path,
+      java.nio.file.Path start,
+      List<String> paths,
+      List<PageRef> pageRefs
+  ) throws IOException {
+    Deque<Watched> dirs = new ArrayDeque<>();
+    Files.walkFileTree(start, new SimpleFileVisitor<java.nio.file.Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attrs) throws IOException {
+        StringBuilder dirPath = new StringBuilder(path);
+        for (java.nio.file.Path name : start.relativize(dir)) {
+          String s = name.toString();
+          if (!s.isEmpty()) {
+            dirPath.append(s).append('/');
+          }
+        }
+        WatchKey key = dir.register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_DELETE,
+            StandardWatchEventKinds.ENTRY_MODIFY
+        );
+        Watched newWatched = new Watched(bookRef, dirPath.toString(), dir);
+        watched.put(key, newWatched);
+        dirs.push(newWatched);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) {
+        Watched parent = dirs.peek();
+        String filename = file.getFileName().toString();
+        if (paths != null) {
+          paths.add(parent.path + filename);
+        }
+        if (pageRefs != null) {
+          PageRef pageRef = getPageRef(parent, filename);
+          if (pageRef != null) {
+            pageRefs.add(pageRef);
+          }
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(java.nio.file.Path dir, IOException e) throws IOException {
+        dirs.pop();
+        return super.postVisitDirectory(dir, e);
+      }
+    });
+  }
+
+  /**
+   * Gets the page for a file, if it is a page source.
+   *
+   * @return  The page or {@code null} when not a page source
+   */
+  private static PageRef getPageRef(Watched dir, String filename) {
+    for (String extension : PAGE_EXTENSIONS) {
+      if (filename.endsWith(extension)) {
+        String name = filename.substring(0, filename.length() - extension.length());
+        try {
+          return new PageRef(
+              dir.bookRef,
+              Path.valueOf(INDEX.equals(name) ? dir.path : (dir.path + name))
+          );
+        } catch (ValidationException e) {
+          logger.log(Level.FINE, "Not a valid page path", e);
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        Watched dir = watched.get(key);
+        if (dir != null) {
+          List<PageRef> pageRefs = new ArrayList<>();
+          List<String> paths = new ArrayList<>();
+          boolean anyCreated = false;
+          for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == StandardWatchEventKinds.OVERFLOW) {
+              overflow.run();
+            } else {
+              java.nio.file.Path name = (java.nio.file.Path) event.context();
+              if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                anyCreated = true;
+                java.nio.file.Path child = dir.directory.resolve(name);
+                if (Files.isDirectory(child)) {
+                  // Files may have been created in the new directory before it was watched
+                  try {
+                    registerAll(dir.bookRef, dir.path + name + '/', child, paths, pageRefs);
+                  } catch (IOException e) {
+                    logger.log(Level.WARNING, "Unable to watch new directory: " + child, e);
+                    // Changes within the directory may be lost
+                    overflow.run();
+                  }
+                  continue;
+                }
+              }
+              paths.add(dir.path + name);
+              PageRef pageRef = getPageRef(dir, name.toString());
+              if (pageRef != null) {
+                pageRefs.add(pageRef);
+              }
+            }
+          }
+          for (String path : paths) {
+            fileChanged.accept(dir.bookRef, path);
+          }
+          if (anyCreated) {
+            created.accept(dir.bookRef);
+          }
+          for (PageRef pageRef : pageRefs) {
+            if (logger.isLoggable(Level.FINE)) {
+              logger.fine("Page changed: " + pageRef);
+            }
+            changed.accept(pageRef);
+          }
+        }
+        if (!key.reset()) {
+          watched.remove(key);
+        }
+      }
+    } catch (InterruptedException e) {
+      // Restore the interrupted status
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // Normal shutdown
+    } catch (RuntimeException | Error e) {
+      logger.log(Level.SEVERE, "Book change monitor stopped", e);
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+    thread.interrupt();
+  }
+}
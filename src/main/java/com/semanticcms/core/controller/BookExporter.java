@@ -0,0 +1,393 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.lang.concurrent.ExecutionExceptions;
+import com.aoapps.servlet.subrequest.HttpServletSubRequest;
+import com.aoapps.servlet.subrequest.HttpServletSubRequestWrapper;
+import com.aoapps.servlet.subrequest.HttpServletSubResponse;
+import com.aoapps.servlet.subrequest.HttpServletSubResponseWrapper;
+import com.aoapps.servlet.subrequest.IHttpServletSubRequest;
+import com.aoapps.servlet.subrequest.IHttpServletSubResponse;
+import com.aoapps.servlet.subrequest.UnmodifiableCopyHttpServletRequest;
+import com.aoapps.servlet.subrequest.UnmodifiableCopyHttpServletResponse;
+import com.aoapps.tempfiles.TempFileContext;
+import com.aoapps.tempfiles.servlet.TempFileContextEE;
+import com.semanticcms.core.model.BookRef;
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import com.semanticcms.core.renderer.PageRenderer;
+import com.semanticcms.core.renderer.Renderer;
+import com.semanticcms.core.renderer.servlet.ServletPageRenderer;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exports an entire book in-process, rendering every page through a registered {@link Renderer} into a directory.
+ *
+ * <p>The book is walked once with {@link CapturePage#traversePagesDepthFirst(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.model.PageReferrer, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.PageDepthHandler, com.semanticcms.core.controller.CapturePage.TraversalEdges, com.semanticcms.core.controller.CapturePage.EdgeFilter, com.semanticcms.core.controller.CapturePage.PageDepthHandler)},
+ * sharing the capture cache of the current request for all pages.  When concurrent subrequests are recommended,
+ * pages are rendered in parallel on the {@link Executors}, with the number of pages in progress limited by the
+ * {@linkplain ConcurrencyCoordinator#getConcurrencyBudget(jakarta.servlet.ServletRequest) concurrency budget} so that
+ * memory use remains bounded.  Otherwise, pages are rendered sequentially as they are visited.</p>
+ *
+ * <p>Each page is written to the output directory at its book prefix, path, and the renderer suffix.  Pages ending
+ * in a slash are written as "index" within their directory, matching
+ * {@link SemanticCMS#getRendererAndPath(com.aoapps.net.Path)}.</p>
+ *
+ * <p>This must be called within a request, such as from an administrative servlet, since pages are captured and
+ * rendered as subrequests.</p>
+ */
+public final class BookExporter {
+
+  /** Make no instances. */
+  private BookExporter() {
+    throw new AssertionError();
+  }
+
+  private static final String INDEX = "index";
+
+  private static final String TMP_EXTENSION = ".tmp";
+
+  /**
+   * Exports all pages of a book that are reachable from its content root through child pages within the same book,
+   * rendering every page.
+   *
+   * @see  #exportBook(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.controller.Book, java.lang.String, java.io.File, boolean, java.lang.String)
+   */
+  public static int exportBook(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Book book,
+      String suffix,
+      File outputDir
+  ) throws ServletException, IOException {
+    return exportBook(servletContext, request, response, book, suffix, outputDir, false, null);
+  }
+
+  /**
+   * Exports all pages of a book that are reachable from its content root through child pages within the same book,
+   * without a version of the inputs shared by all pages.  A full export is required after any change to a theme,
+   * template, included fragment, or other input not specific to a page.
+   *
+   * @see  #exportBook(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.controller.Book, java.lang.String, java.io.File, boolean, java.lang.String)
+   */
+  public static int exportBook(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Book book,
+      String suffix,
+      File outputDir,
+      boolean incremental
+  ) throws ServletException, IOException {
+    return exportBook(servletContext, request, response, book, suffix, outputDir, incremental, null);
+  }
+
+  /**
+   * Exports all pages of a book that are reachable from its content root through child pages within the same book.
+   *
+   * <p>A {@link ExportManifest manifest} of the fingerprint of each page's inputs is kept in the output directory.
+   * When incremental, pages whose fingerprint is unchanged are not rendered again.  Pages exported previously but
+   * no longer found are removed.  All pages are rendered again when the renderer or version differs from the previous
+   * export.</p>
+   *
+   * @param  suffix       The suffix of the registered renderer to use, such as ".html"
+   * @param  outputDir    The directory that will contain the exported pages
+   * @param  incremental  When {@code true}, only renders pages whose inputs have changed since the previous export
+   * @param  version      The version of the inputs shared by all pages, such as themes, templates, and included
+   *                      fragments, typically the build version of the application.  When {@code null}, a full export
+   *                      is required after any such change.
+   *
+   * @return  The number of pages rendered
+   *
+   * @throws  IllegalArgumentException  when no renderer is registered with the suffix
+   */
+  public static int exportBook(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Book book,
+      String suffix,
+      File outputDir,
+      boolean incremental,
+      String version
+  ) throws ServletException, IOException {
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+    Renderer renderer = semanticCms.getRenderers().get(suffix);
+    if (renderer == null) {
+      throw new IllegalArgumentException("Renderer not found: " + suffix);
+    }
+    if (!book.isAccessible()) {
+      throw new ServletException("Book is inaccessible: " + book.getBookRef());
+    }
+    final BookRef bookRef = book.getBookRef();
+    final CaptureLevel renderLevel = renderer.getCaptureLevel();
+    final java.nio.file.Path outputPath = outputDir.toPath().toAbsolutePath().normalize();
+    final ExportManifest manifest = ExportManifest.load(outputPath, renderer.getClass().getName(), version);
+    final AtomicInteger rendered = new AtomicInteger();
+    if (ConcurrencyCoordinator.useConcurrentSubrequests(request)) {
+      // Concurrent implementation
+      final TempFileContext tempFileContext = TempFileContextEE.get(request);
+      final HttpServletRequest threadSafeReq = new UnmodifiableCopyHttpServletRequest(request);
+      final HttpServletResponse threadSafeResp = new UnmodifiableCopyHttpServletResponse(response);
+      final Executors executors = semanticCms.getExecutors();
+      // Limits the number of pages in progress, which bounds memory use
+      final Semaphore inProgress = new Semaphore(Math.max(1, ConcurrencyCoordinator.getConcurrencyBudget(request)));
+      final AtomicReference<Throwable> failure = new AtomicReference<>();
+      final List<Future<?>> futures = new ArrayList<>();
+      try {
+        traverse(servletContext, request, response, book, (Page page, int depth) -> {
+          checkFailure(failure);
+          try {
+            inProgress.acquire();
+          } catch (InterruptedException e) {
+            // Restore the interrupted status
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+          }
+          try {
+            futures.add(
+                executors.submit(
+                    CapturePriority.TRAVERSAL,
+                    () -> {
+                      try {
+                        if (
+                            exportPage(
+                                servletContext,
+                                threadSafeReq,
+                                threadSafeResp,
+                                new HttpServletSubRequest(threadSafeReq),
+                                new HttpServletSubResponse(threadSafeResp, tempFileContext),
+                                book,
+                                renderer,
+                                renderLevel,
+                                page,
+                                outputPath,
+                                getOutputFile(outputPath, bookRef, page.getPageRef(), suffix),
+                                manifest,
+                                incremental
+                            )
+                        ) {
+                          rendered.incrementAndGet();
+                        }
+                        return null;
+                      } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                        throw t;
+                      } finally {
+                        inProgress.release();
+                      }
+                    }
+                )
+            );
+          } catch (Throwable t) {
+            inProgress.release();
+            throw t;
+          }
+          return null;
+        });
+        // Wait for all pages to be written
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        // Restore the interrupted status
+        Thread.currentThread().interrupt();
+        throw new ServletException(e);
+      } catch (ExecutionException e) {
+        ExecutionExceptions.wrapAndThrow(e, CaptureCancelledException.class, CaptureCancelledException::new);
+        ExecutionExceptions.wrapAndThrow(e, IOException.class, IOException::new);
+        throw new ServletException(e);
+      } finally {
+        // Cancel any pages not yet started, such as after a failure
+        for (Future<?> future : futures) {
+          future.cancel(false);
+        }
+      }
+    } else {
+      // Sequential implementation
+      traverse(servletContext, request, response, book, (Page page, int depth) -> {
+        if (
+            exportPage(
+                servletContext,
+                request,
+                response,
+                new HttpServletSubRequestWrapper(request),
+                new HttpServletSubResponseWrapper(response, TempFileContextEE.get(request)),
+                book,
+                renderer,
+                renderLevel,
+                page,
+                outputPath,
+                getOutputFile(outputPath, bookRef, page.getPageRef(), suffix),
+                manifest,
+                incremental
+            )
+        ) {
+          rendered.incrementAndGet();
+        }
+        return null;
+      });
+    }
+    // Remove pages no longer found, then record the fingerprints of this export
+    for (String removed : manifest.getRemoved()) {
+      java.nio.file.Path removedFile = outputPath.resolve(removed).normalize();
+      if (removedFile.startsWith(outputPath)) {
+        Files.deleteIfExists(removedFile);
+      }
+    }
+    manifest.save();
+    return rendered.get();
+  }
+
+  /**
+   * Visits each page of the book once, at {@link CaptureLevel#META} and in depth-first order.
+   */
+  private static void traverse(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Book book,
+      CapturePage.PageDepthHandler<Void> handler
+  ) throws ServletException, IOException {
+    final BookRef bookRef = book.getBookRef();
+    CapturePage.traversePagesDepthFirst(
+        servletContext,
+        request,
+        response,
+        book.getContentRoot(),
+        CaptureLevel.META,
+        handler,
+        Page::getChildRefs,
+        // Child is in this book
+        childPage -> bookRef.equals(childPage.getBookRef()),
+        null
+    );
+  }
+
+  private static void checkFailure(AtomicReference<Throwable> failure) throws ServletException, IOException {
+    Throwable t = failure.get();
+    if (t != null) {
+      if (t instanceof IOException) {
+        throw new IOException(t);
+      }
+      throw new ServletException(t);
+    }
+  }
+
+  /**
+   * Gets the file a page is written to, ensuring it is within the output directory.
+   */
+  private static File getOutputFile(java.nio.file.Path outputPath, BookRef bookRef, PageRef pageRef, String suffix) throws IOException {
+    String path = pageRef.getPath().toString();
+    StringBuilder relative = new StringBuilder();
+    relative.append(bookRef.getPrefix()).append(path);
+    if (path.endsWith("/")) {
+      relative.append(INDEX);
+    }
+    relative.append(suffix);
+    // Skip leading slash
+    java.nio.file.Path file = outputPath.resolve(relative.substring(1)).normalize();
+    if (!file.startsWith(outputPath)) {
+      throw new IOException("Page is outside the output directory: " + pageRef);
+    }
+    return file.toFile();
+  }
+
+  /**
+   * Captures the page at the renderer's level, when needed, then renders it to its file.
+   * The file is replaced atomically, so a failed export never leaves a partial page in place.
+   *
+   * @return  {@code true} when rendered or {@code false} when skipped as unchanged
+   */
+  private static boolean exportPage(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      IHttpServletSubRequest subRequest,
+      IHttpServletSubResponse subResponse,
+      Book book,
+      Renderer renderer,
+      CaptureLevel renderLevel,
+      Page page,
+      java.nio.file.Path outputPath,
+      File file,
+      ExportManifest manifest,
+      boolean incremental
+  ) throws ServletException, IOException {
+    String key = outputPath.relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+    String fingerprint = ExportManifest.fingerprint(servletContext, request, response, book, page);
+    boolean unchanged = incremental && manifest.isUnchanged(key, fingerprint) && file.exists();
+    manifest.put(key, fingerprint);
+    if (unchanged) {
+      return false;
+    }
+    if (renderLevel != CaptureLevel.META) {
+      page = CapturePage.capturePage(servletContext, request, response, page.getPageRef(), renderLevel);
+      if (page == null) {
+        throw new ServletException("Page removed during export: " + file);
+      }
+    }
+    Map<String, Object> pageRendererAttributes = new HashMap<>();
+    pageRendererAttributes.put(ServletPageRenderer.REQUEST_RENDERER_ATTRIBUTE, subRequest);
+    pageRendererAttributes.put(ServletPageRenderer.RESPONSE_RENDERER_ATTRIBUTE, subResponse);
+    File dir = file.getParentFile();
+    if (dir != null) {
+      Files.createDirectories(dir.toPath());
+    }
+    java.nio.file.Path tmp = file.toPath().resolveSibling(file.getName() + TMP_EXTENSION);
+    try {
+      try (
+        PageRenderer pageRenderer = renderer.newPageRenderer(page, pageRendererAttributes);
+        Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)
+          ) {
+        pageRenderer.doRenderer(out);
+      }
+      Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    return true;
+  }
+}
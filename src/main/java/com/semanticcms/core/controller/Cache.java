@@ -29,7 +29,6 @@ import com.semanticcms.core.model.PageRef;
 import com.semanticcms.core.pages.CaptureLevel;
 import jakarta.servlet.ServletException;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * A caching cache, whether shared between requests or used within the scope of
@@ -55,107 +54,47 @@ public abstract class Cache {
   protected static final boolean VERIFY_CACHE_PARENT_CHILD_RELATIONSHIPS = true;
 
   /**
-   * Caches pages that have been captured within the scope of a single request.
-   *
-   * <p>IDEA: Could also cache over time, since there is currently no concept of a "user" (except whether request is trusted
-   *       127.0.0.1 or not).</p>
+   * Returned by {@link #get(com.semanticcms.core.model.PageRef, com.semanticcms.core.pages.CaptureLevel)} for a page
+   * cached as not found.  Compared by identity only, and never returned outside of the cache implementation.
    */
-  static class CaptureKey {
-
-    final PageRef pageRef;
-    final CaptureLevel level;
-
-    CaptureKey(
-        PageRef pageRef,
-        CaptureLevel level
-    ) {
-      this.pageRef = pageRef;
-      assert level != CaptureLevel.BODY : "Body captures are not cached";
-      this.level = level;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (!(o instanceof CaptureKey)) {
-        return false;
-      }
-      CaptureKey other = (CaptureKey) o;
-      return
-          level == other.level
-              && pageRef.equals(other.pageRef);
-    }
-
-    private int hash;
-
-    @Override
-    public int hashCode() {
-      int h = hash;
-      if (h == 0) {
-        h = level.hashCode();
-        h = h * 31 + pageRef.hashCode();
-        hash = h;
-      }
-      return h;
-    }
-
-    @Override
-    public String toString() {
-      return '(' + level.toString() + ", " + pageRef.toString() + ')';
-    }
-  }
-
-  // Java 1.8: Optional<Page>
-  static class CaptureResult {
-
-    static final CaptureResult EMPTY = new CaptureResult(null);
-
-    static CaptureResult of(Page page) {
-      return page == null ? EMPTY : new CaptureResult(page);
-    }
-
-    final Page page;
-
-    private CaptureResult(Page page) {
-      this.page = page;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (!(o instanceof CaptureResult)) {
-        return false;
-      }
-      CaptureResult other = (CaptureResult) o;
-      return Objects.equals(page, other.page);
-    }
-
-    @Override
-    public int hashCode() {
-      return Objects.hash(page);
-    }
+  static final Page NOT_FOUND = new Page();
 
-    @Override
-    public String toString() {
-      return "CaptureResult(" + Objects.toString(page, null) + ')';
-    }
+  /**
+   * Converts a cached result to the page it represents.
+   *
+   * @return  The page or {@code null} when cached as not found
+   */
+  static Page found(Page cached) {
+    return cached == NOT_FOUND ? null : cached;
   }
 
   /**
-   * A lookup of level PAGE will also perform a lookup of META if not found.
+   * Gets the navigation summary stored with a cached page.
+   *
+   * @param  page  The page, which must be the same instance as cached
+   *
+   * @return  The summary or {@code null} when the page is not cached
    */
-  abstract CaptureResult get(CaptureKey key);
+  abstract PageNavigation getNavigation(Page page);
 
   /**
-   * A lookup of level PAGE will also perform a lookup of META if not found.
+   * Gets the best available capture of at least the given level.
+   * A lookup of level PAGE will also be satisfied by META.
+   *
+   * @param  level  The capture level, must not be BODY since body captures are not cached
+   *
+   * @return  The page, {@link #NOT_FOUND} when cached as not found, or {@code null} when not cached
    */
-  CaptureResult get(PageRef pageRef, CaptureLevel level) {
-    return get(new CaptureKey(pageRef, level));
-  }
+  abstract Page get(PageRef pageRef, CaptureLevel level);
 
   /**
    * Adds the provided page to the cache.  Will also verify parent-child relationships
    * on an as-needed basis.
+   *
+   * @param  level  The capture level, must not be BODY since body captures are not cached
+   * @param  page   The captured page or {@code null} when the page does not exist
    */
-  abstract void put(CaptureKey key, Page page) throws ServletException;
+  abstract void put(PageRef pageRef, CaptureLevel level, Page page) throws ServletException;
 
   /**
    * Creates a new map that is suitable for the expected thread safety requirements.
@@ -194,8 +133,9 @@ public abstract class Cache {
 
   /**
    * Atomically checks the cache then calls the callable and adds.
-   * Note: It is possible the callable might be called and not used.  If
-   * clean-up of unused callable is necessary, synchronize externally and use
+   * Concurrent callers for the same key wait for the computation in progress instead of calling the callable again.
+   * Note: It is still possible the callable might be called and not used, such as after a long wait or a failed
+   * computation.  If clean-up of unused callable is necessary, synchronize externally and use
    * regular getAttribute/setAttribute in sequence.
    *
    * @param  <Ex>  An arbitrary exception type that may be thrown
@@ -34,20 +34,23 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Resolves the cache to use for the current request.
+ * Resolves the cache to use for the current request and establishes its {@link CaptureDeadline}.
  *
  * @see  ConcurrencyCoordinator
  */
 public class CacheFilter implements Filter {
 
+  private static final Logger logger = Logger.getLogger(CacheFilter.class.getName());
+
   private static final ScopeEE.Request.Attribute<Cache> CAPTURE_CACHE_REQUEST_ATTRIBUTE =
       ScopeEE.REQUEST.attribute(CacheFilter.class.getName());
 
-  private static final ScopeEE.Application.Attribute<ExportPageCache> EXPORT_CACHE_APPLICATION_ATTRIBUTE =
-      ScopeEE.APPLICATION.attribute(CacheFilter.class.getName() + ".exportCache");
-
   /**
    * The number of milliseconds after the export cache is no longer considered valid.
    */
@@ -67,90 +70,104 @@ public class CacheFilter implements Filter {
     return cache;
   }
 
+  /**
+   * Finds the cache to use for the current request.
+   *
+   * @return  The cache or {@code null} when the filter is not active on the current request
+   */
+  static Cache findCache(ServletRequest request) {
+    return CAPTURE_CACHE_REQUEST_ATTRIBUTE.context(request).get();
+  }
+
+  /**
+   * Prepares a request for background work that may outlive the request it was copied from.  The request is given
+   * its own cache, and the deadline and trace copied from the original request are removed, since both end with the
+   * original request.
+   */
+  static void detach(ServletRequest request, Cache cache) {
+    CAPTURE_CACHE_REQUEST_ATTRIBUTE.context(request).set(cache);
+    CaptureDeadline.REQUEST_ATTRIBUTE.context(request).remove();
+    CaptureTrace.REQUEST_ATTRIBUTE.context(request).remove();
+  }
+
   /**
    * To speed up an export, the elements are cached between requests.
    * The first non-exporting request will clear this cache, and it will also
    * be removed after a given number of seconds.
    *
+   * <p>Each instance is an immutable snapshot of the active cache and its start time.  A new snapshot replaces an
+   * expired one by compare-and-set, so no lock is held on the request path.</p>
+   *
    * <p>TODO: Consider consequences of caching once we have a security model applied</p>
    */
-  private static class ExportPageCache {
-
-    private final CacheFilter filter;
-
-    private final SemanticCMS semanticCms;
-
-    /**
-     * When concurrent subrequests are enabled, use concurrent implementation.
-     * When export mode without subrequests, use synchronized since exports are typically
-     * done one request at a time.
-     */
-    private final boolean concurrentSubrequests;
-
-    private ExportPageCache(CacheFilter filter, SemanticCMS semanticCms, boolean concurrentSubrequests) {
-      this.filter = filter;
-      this.semanticCms = semanticCms;
-      this.concurrentSubrequests = concurrentSubrequests;
-    }
+  private static final class ExportPageCache {
 
     /**
      * The time the cache started, used for expiration.
      */
-    private long cacheStart;
+    private final long cacheStart;
 
     /**
-     * The currently active cache.
+     * The cache for this snapshot.
      */
-    private Cache cache;
+    private final Cache cache;
 
-    /**
-     * Invalidates the page cache if it has exceeded its TTL.
-     *
-     * @return true when the cache is now invalid
-     */
-    boolean invalidateCache(long currentTime) {
-      assert Thread.holdsLock(filter.exportCacheLock);
-      if (cache == null) {
-        return true;
-      } else if (
-          currentTime >= (cacheStart + EXPORT_CAPTURE_PAGE_CACHE_TTL)
-              // Handle system time changes
-              || currentTime <= (cacheStart - EXPORT_CAPTURE_PAGE_CACHE_TTL)
-      ) {
-        cache = null;
-        return true;
-      } else {
-        return false;
-      }
+    private ExportPageCache(long cacheStart, Cache cache) {
+      this.cacheStart = cacheStart;
+      this.cache = cache;
     }
 
     /**
-     * Invalidates the cache, if needed, then gets the resulting cache.
+     * Checks if the page cache has exceeded its TTL.
      */
-    Cache getCache(long currentTime) {
-      assert Thread.holdsLock(filter.exportCacheLock);
-      invalidateCache(currentTime);
-      if (cache == null) {
-        cacheStart = currentTime;
-        cache = concurrentSubrequests ? new ConcurrentCache(semanticCms) : new SynchronizedCache(semanticCms);
-      }
-      return cache;
+    private boolean isExpired(long currentTime) {
+      return
+          currentTime >= (cacheStart + EXPORT_CAPTURE_PAGE_CACHE_TTL)
+              // Handle system time changes
+              || currentTime <= (cacheStart - EXPORT_CAPTURE_PAGE_CACHE_TTL);
     }
   }
 
   private ServletContext servletContext;
-  private boolean concurrentSubrequests;
 
-  private static class ExportCacheLock {
-    // Empty lock class to help heap profile
+  /**
+   * The current export cache or {@code null} when not exporting.
+   */
+  private final AtomicReference<ExportPageCache> exportCache = new AtomicReference<>();
+
+  /**
+   * Gets the export cache, replacing it when expired.
+   */
+  private Cache getExportCache() {
+    while (true) {
+      long currentTime = System.currentTimeMillis();
+      ExportPageCache snapshot = exportCache.get();
+      if (snapshot != null && !snapshot.isExpired(currentTime)) {
+        return snapshot.cache;
+      }
+      SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+      // Always concurrent, since the export cache is shared by any requests that overlap.  Reads are lock-free,
+      // with only parent-child verification serialized.
+      ExportPageCache newSnapshot = new ExportPageCache(currentTime, new ConcurrentCache(semanticCms));
+      if (exportCache.compareAndSet(snapshot, newSnapshot)) {
+        return newSnapshot.cache;
+      }
+    }
   }
 
-  private final ExportCacheLock exportCacheLock = new ExportCacheLock();
+  /**
+   * Removes any stale export cache.  This is a single volatile read when not exporting.
+   */
+  void cleanupExportCache() {
+    ExportPageCache snapshot = exportCache.get();
+    if (snapshot != null && snapshot.isExpired(System.currentTimeMillis())) {
+      exportCache.compareAndSet(snapshot, null);
+    }
+  }
 
   @Override
   public void init(FilterConfig config) throws ServletException {
     servletContext = config.getServletContext();
-    concurrentSubrequests = SemanticCMS.getInstance(servletContext).getConcurrentSubrequests();
   }
 
   @Override
@@ -165,38 +182,56 @@ public class CacheFilter implements Filter {
       } else {
         isExporting = false;
       }
-      AttributeEE.Application<ExportPageCache> exportCacheApplicationAttribute = EXPORT_CACHE_APPLICATION_ATTRIBUTE.context(servletContext);
-      synchronized (exportCacheLock) {
-        ExportPageCache exportCache = exportCacheApplicationAttribute.get();
-        if (isExporting) {
-          if (exportCache == null) {
-            exportCache = new ExportPageCache(this, SemanticCMS.getInstance(servletContext), concurrentSubrequests);
-            exportCacheApplicationAttribute.set(exportCache);
-          }
-          cache = exportCache.getCache(System.currentTimeMillis());
-        } else {
-          // Clean-up stale export cache
-          if (exportCache != null) {
-            if (exportCache.invalidateCache(System.currentTimeMillis())) {
-              exportCacheApplicationAttribute.remove();
-            }
-          }
-        }
+      if (isExporting) {
+        cache = getExportCache();
+      } else {
+        // Clean-up stale export cache
+        cleanupExportCache();
       }
+      SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
       if (cache == null) {
         // Request-level cache when not exporting
-        SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
         if (ConcurrencyCoordinator.useConcurrentSubrequests(request)) {
           cache = new ConcurrentCache(semanticCms);
         } else {
-          cache = new SingleThreadCache(semanticCms);
+          cache = semanticCms.getCachePool().acquire(semanticCms);
         }
       }
+      AttributeEE.Request<CaptureDeadline> deadlineRequestAttribute = CaptureDeadline.REQUEST_ATTRIBUTE.context(request);
+      CaptureDeadline deadline = new CaptureDeadline(
+          TimeUnit.MILLISECONDS.toNanos(semanticCms.getCaptureTimeout())
+      );
+      AttributeEE.Request<CaptureTrace> traceRequestAttribute = CaptureTrace.REQUEST_ATTRIBUTE.context(request);
+      CaptureTrace trace = semanticCms.getCaptureTrace() ? CaptureTrace.start(getTraceName(request)) : null;
       try {
         captureCacheRequestAttribute.set(cache);
+        deadlineRequestAttribute.set(deadline);
+        if (trace != null) {
+          traceRequestAttribute.set(trace);
+        }
         chain.doFilter(request, response);
       } finally {
+        // Release any concurrent subrequests still queued on behalf of this request
+        deadline.cancel();
+        if (trace != null) {
+          trace.end();
+          traceRequestAttribute.remove();
+          if (
+              logger.isLoggable(Level.INFO)
+                  && trace.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(semanticCms.getCaptureTraceThreshold())
+          ) {
+            logger.log(Level.INFO, "Slow request capture trace:\n{0}", trace.toWaterfall());
+            if (logger.isLoggable(Level.FINE)) {
+              logger.log(Level.FINE, "Slow request capture trace JSON: {0}", trace.toJson());
+            }
+          }
+        }
+        deadlineRequestAttribute.remove();
         captureCacheRequestAttribute.remove();
+        if (cache instanceof SingleThreadCache) {
+          // Only request-level caches are single-threaded, and no longer in use once the request completes
+          semanticCms.getCachePool().release((SingleThreadCache) cache);
+        }
       }
     } else {
       // Cache already set
@@ -204,6 +239,15 @@ public class CacheFilter implements Filter {
     }
   }
 
+  private static String getTraceName(ServletRequest request) {
+    if (request instanceof HttpServletRequest) {
+      HttpServletRequest httpRequest = (HttpServletRequest) request;
+      return httpRequest.getMethod() + ' ' + httpRequest.getRequestURI();
+    } else {
+      return request.toString();
+    }
+  }
+
   @Override
   public void destroy() {
     servletContext = null;
@@ -0,0 +1,84 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of {@link SingleThreadCache} recycled between requests, to avoid allocating a new cache and its
+ * page table for every request.
+ *
+ * <p>A cache is only returned to the pool by {@link CacheFilter} once its request has completed.  The pool must only
+ * be enabled when no application code retains a reference to the {@link Cache} of a request, or to its attributes,
+ * beyond the request.</p>
+ *
+ * <p>The pool belongs to the {@link SemanticCMS} instance instead of being thread local, so that nothing is retained
+ * by container threads once the application is stopped.</p>
+ */
+final class CachePool {
+
+  /**
+   * The idle caches or {@code null} when disabled.
+   */
+  private final BlockingQueue<SingleThreadCache> idle;
+
+  /**
+   * @param  size  The maximum number of idle caches, or {@code 0} to disable
+   */
+  CachePool(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size < 0: " + size);
+    }
+    this.idle = size == 0 ? null : new ArrayBlockingQueue<>(size);
+  }
+
+  boolean isEnabled() {
+    return idle != null;
+  }
+
+  /**
+   * Gets an idle cache, or a new cache when none are idle.
+   */
+  SingleThreadCache acquire(SemanticCMS semanticCms) {
+    if (idle != null) {
+      SingleThreadCache cache = idle.poll();
+      if (cache != null) {
+        cache.setAssertingThread();
+        return cache;
+      }
+    }
+    return new SingleThreadCache(semanticCms);
+  }
+
+  /**
+   * Clears a cache and makes it available for another request.  The cache is discarded when the pool is full.
+   */
+  void release(SingleThreadCache cache) {
+    if (idle != null) {
+      cache.clear();
+      idle.offer(cache);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import jakarta.servlet.ServletException;
+
+/**
+ * Thrown when a capture or traversal is aborted because its request has been
+ * {@linkplain CaptureDeadline#cancel() cancelled} or has exceeded its {@link CaptureDeadline deadline}.
+ *
+ * @see  CaptureDeadline
+ */
+public class CaptureCancelledException extends ServletException {
+
+  private static final long serialVersionUID = 1L;
+
+  public CaptureCancelledException(String message) {
+    super(message);
+  }
+
+  public CaptureCancelledException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Merges identical in-flight META and PAGE captures across all requests, so that concurrent requests needing the same
+ * page at the same level share a single subrequest.  This is safe because these captures are always performed with a
+ * request method of "GET" and do not depend on the enclosing request.  BODY captures are never coalesced.
+ *
+ * <p>A thread that is itself performing a coalesced capture, or is a concurrent subrequest of one, could deadlock by
+ * waiting on a capture that is in turn waiting on it.  A thread running a scheduled task could likewise hold the
+ * {@link PriorityScheduler} permit that the capture it waits on needs for its own concurrent subrequests.  Such waits
+ * are limited to {@link #NESTED_WAIT_NANOS}, and all other waits to {@link #MAX_WAIT_NANOS}, after which the page is
+ * captured independently.  Waits are also limited by any {@link CaptureDeadline}.</p>
+ *
+ * <p>When the shared capture fails, each waiting request captures the page independently, so that any error is
+ * reported in the context of each request.</p>
+ *
+ * <p>Enabled by default, may be disabled by setting the context init parameter
+ * "{@code com.semanticcms.core.controller.SemanticCMS.captureCoalescing}" to "false".</p>
+ *
+ * @see  SemanticCMS#getCaptureCoalescer()
+ */
+final class CaptureCoalescer {
+
+  /**
+   * The maximum time to wait for a coalesced capture from a thread that is itself within a coalesced capture.
+   */
+  private static final long NESTED_WAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+  /**
+   * The maximum time to wait for a coalesced capture from any other thread, so that no wait is unbounded even when
+   * there is no {@link CaptureDeadline}.
+   */
+  private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+  /**
+   * The number of coalesced captures in progress on the current thread, including those of any parent task.
+   */
+  private static final ThreadLocal<Integer> nested = new ThreadLocal<>();
+
+  /**
+   * Passes the nested state of this thread to the given task.
+   */
+  static <T> Callable<T> wrap(Callable<T> task) {
+    Integer depth = nested.get();
+    if (depth == null) {
+      return task;
+    }
+    return () -> {
+      Integer previous = nested.get();
+      nested.set(depth);
+      try {
+        return task.call();
+      } finally {
+        if (previous == null) {
+          nested.remove();
+        } else {
+          nested.set(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Passes the nested state of this thread to the given task.
+   */
+  static Runnable wrap(Runnable task) {
+    Integer depth = nested.get();
+    if (depth == null) {
+      return task;
+    }
+    return () -> {
+      Integer previous = nested.get();
+      nested.set(depth);
+      try {
+        task.run();
+      } finally {
+        if (previous == null) {
+          nested.remove();
+        } else {
+          nested.set(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Performs one capture.
+   */
+  @FunctionalInterface
+  static interface Capture {
+    Page call() throws ServletException, IOException;
+  }
+
+  private static final class Key {
+
+    private final PageRef pageRef;
+    private final CaptureLevel level;
+
+    private Key(PageRef pageRef, CaptureLevel level) {
+      this.pageRef = pageRef;
+      this.level = level;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return
+          level == other.level
+              && (pageRef == other.pageRef || pageRef.equals(other.pageRef));
+    }
+
+    @Override
+    public int hashCode() {
+      return level.ordinal() * 31 + pageRef.hashCode();
+    }
+  }
+
+  private final SemanticCMS semanticCms;
+
+  private final boolean enabled;
+
+  private final ConcurrentMap<Key, CompletableFuture<Page>> inFlight = new ConcurrentHashMap<>();
+
+  CaptureCoalescer(SemanticCMS semanticCms, boolean enabled) {
+    this.semanticCms = semanticCms;
+    this.enabled = enabled;
+  }
+
+  /**
+   * Performs the capture or waits for an identical capture already in progress.
+   *
+   * @param  deadline  Optional, limits the time waiting on another capture
+   *
+   * @return  The captured page or {@code null} if page does not exist.
+   */
+  Page capture(PageRef pageRef, CaptureLevel level, CaptureDeadline deadline, Capture capture) throws ServletException, IOException {
+    if (!enabled || level == CaptureLevel.BODY) {
+      return capture.call();
+    }
+    Key key = new Key(pageRef, level);
+    CompletableFuture<Page> future = new CompletableFuture<>();
+    CompletableFuture<Page> existing = inFlight.putIfAbsent(key, future);
+    if (existing == null) {
+      // This thread performs the capture
+      Integer previous = nested.get();
+      nested.set(previous == null ? 1 : (previous + 1));
+      try {
+        Page page = capture.call();
+        future.complete(page);
+        return page;
+      } catch (Throwable t) {
+        future.completeExceptionally(t);
+        throw t;
+      } finally {
+        inFlight.remove(key, future);
+        if (previous == null) {
+          nested.remove();
+        } else {
+          nested.set(previous);
+        }
+      }
+    } else {
+      // Wait for the capture in progress
+      long waitNanos =
+          (nested.get() != null || PriorityScheduler.isInScheduledTask())
+              ? NESTED_WAIT_NANOS
+              : MAX_WAIT_NANOS;
+      if (deadline != null) {
+        waitNanos = Math.min(waitNanos, Math.max(0, deadline.getRemainingNanos()));
+      }
+      CaptureTrace.Span span = CaptureTrace.start(CaptureTrace.Kind.WAIT, "coalesced", level);
+      try {
+        Page page = existing.get(waitNanos, TimeUnit.NANOSECONDS);
+        semanticCms.getInstrumentation().coalescedCaptures.increment();
+        return page;
+      } catch (InterruptedException e) {
+        // Restore the interrupted status
+        Thread.currentThread().interrupt();
+        throw new ServletException(e);
+      } catch (ExecutionException | TimeoutException e) {
+        // Shared capture failed or is taking too long, capture independently
+      } finally {
+        if (span != null) {
+          span.end();
+        }
+      }
+      if (deadline != null) {
+        deadline.check();
+      }
+      return capture.call();
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.servlet.attribute.ScopeEE;
+import jakarta.servlet.ServletRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A per-request deadline and cancellation token that is checked by the capture path before dispatching each
+ * subrequest.  Once cancelled or past its deadline, captures and traversals abort with
+ * {@link CaptureCancelledException} and any queued concurrent subrequests return without capturing.
+ *
+ * <p>A deadline is established by {@link CacheFilter} for each top-level request, with the timeout configured by
+ * the context init parameter "{@code com.semanticcms.core.controller.SemanticCMS.captureTimeout}" (in milliseconds,
+ * default no timeout).  The deadline is cancelled when the request completes, which releases any subrequests still
+ * queued on its behalf.</p>
+ *
+ * <p>Components that detect that the client has gone away, such as an {@link java.io.IOException} while writing
+ * the response, may call {@link #cancel()} to stop any remaining capture work for the request.  {@link RendererServlet}
+ * does this when writing the rendered page fails.</p>
+ *
+ * <p>This is thread safe, since it is shared with concurrent subrequests.</p>
+ */
+public final class CaptureDeadline {
+
+  static final ScopeEE.Request.Attribute<CaptureDeadline> REQUEST_ATTRIBUTE =
+      ScopeEE.REQUEST.attribute(CaptureDeadline.class.getName());
+
+  /**
+   * Gets the deadline for the given request.
+   *
+   * @return  The deadline or {@code null} when {@link CacheFilter} is not active on the request
+   */
+  public static CaptureDeadline getDeadline(ServletRequest request) {
+    return REQUEST_ATTRIBUTE.context(request).get();
+  }
+
+  /**
+   * Checks the deadline of the given request, if any.
+   *
+   * @throws  CaptureCancelledException  when the request has been cancelled or has exceeded its deadline
+   */
+  public static void checkDeadline(ServletRequest request) throws CaptureCancelledException {
+    CaptureDeadline deadline = getDeadline(request);
+    if (deadline != null) {
+      deadline.check();
+    }
+  }
+
+  /**
+   * The {@link System#nanoTime()} of the deadline, only used when {@link #hasTimeout}.
+   */
+  private final long deadlineNanos;
+
+  private final boolean hasTimeout;
+
+  private volatile boolean cancelled;
+
+  /**
+   * Creates a new deadline.
+   *
+   * @param  timeoutNanos  The number of nanoseconds from now until the deadline,
+   *                       or {@code 0} for no timeout.
+   */
+  CaptureDeadline(long timeoutNanos) {
+    if (timeoutNanos < 0) {
+      throw new IllegalArgumentException("timeoutNanos < 0: " + timeoutNanos);
+    }
+    this.hasTimeout = timeoutNanos != 0;
+    this.deadlineNanos = hasTimeout ? (System.nanoTime() + timeoutNanos) : 0;
+  }
+
+  /**
+   * Cancels the request.  All subsequent checks will fail and all queued subrequests will return without capturing.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Checks if the request has been cancelled or has exceeded its deadline.
+   */
+  public boolean isCancelled() {
+    return cancelled || (hasTimeout && getRemainingNanos() <= 0);
+  }
+
+  /**
+   * Gets the number of nanoseconds remaining until the deadline.
+   *
+   * @return  The number of nanoseconds remaining, which may be zero or negative once the deadline has passed,
+   *          or {@link Long#MAX_VALUE} when there is no timeout.
+   */
+  public long getRemainingNanos() {
+    return hasTimeout ? (deadlineNanos - System.nanoTime()) : Long.MAX_VALUE;
+  }
+
+  /**
+   * Checks the deadline.
+   *
+   * @throws  CaptureCancelledException  when the request has been cancelled or has exceeded its deadline
+   */
+  public void check() throws CaptureCancelledException {
+    if (cancelled) {
+      throw new CaptureCancelledException("Request cancelled");
+    }
+    if (hasTimeout) {
+      long remaining = getRemainingNanos();
+      if (remaining <= 0) {
+        throw new CaptureCancelledException(
+            "Request exceeded its deadline by " + TimeUnit.NANOSECONDS.toMillis(-remaining) + " ms"
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+/**
+ * A pluggable sink for capture pipeline metrics, such as an adapter to an application's metrics library.
+ * Register an implementation with {@link SemanticCMS#setMetrics(com.semanticcms.core.controller.CaptureMetrics)},
+ * typically from a {@link jakarta.servlet.ServletContextListener}.
+ *
+ * <p>Counters and histograms are resolved by name once, when the metrics are registered, and then used directly
+ * on every capture.  Implementations of {@link Counter} and {@link Histogram} must be thread safe and should be
+ * cheap, since they are called on the capture path.</p>
+ *
+ * <p>All times are recorded in nanoseconds.  The names used are:</p>
+ * <ul>
+ *   <li>{@code semanticcms.cache.hits.<level>}, {@code semanticcms.cache.misses.<level>}: Counters of request cache
+ *       lookups by {@link com.semanticcms.core.pages.CaptureLevel}, in lower case.</li>
+ *   <li>{@code semanticcms.capture.time.<level>}: Histogram of the time to capture a page that was not cached.</li>
+ *   <li>{@code semanticcms.capture.coalesced}: Counter of captures satisfied by an identical capture already in
+ *       progress for another request.</li>
+ *   <li>{@code semanticcms.shared.hits}, {@code semanticcms.shared.stale}, {@code semanticcms.shared.misses}: Counters
+ *       of {@link SharedCaptureCache} lookups that found a fresh capture, found a stale capture, or found nothing
+ *       usable.</li>
+ *   <li>{@code semanticcms.shared.revalidation.time}: Histogram of the time of each background re-capture.</li>
+ *   <li>{@code semanticcms.attribute.time.<key>}: Histogram of the time computing each cache attribute by
+ *       {@link Cache#getAttribute(java.lang.String, java.lang.Class, com.aoapps.lang.concurrent.CallableE)}, with
+ *       keys beyond the first 256 recorded as {@code semanticcms.attribute.time.other}.</li>
+ *   <li>{@code semanticcms.attribute.waits}: Counter of callers that waited for another thread to compute the same
+ *       cache attribute.</li>
+ *   <li>{@code semanticcms.notfound.hits}: Counter of requests answered as not found by {@link NotFoundCache}.</li>
+ *   <li>{@code semanticcms.found.hits}: Counter of OPTIONS requests answered without a capture, since the page was
+ *       already known to exist.</li>
+ *   <li>{@code semanticcms.resource.direct}: Counter of requests classified as resources by their file extension and
+ *       served without attempting a page capture.</li>
+ *   <li>{@code semanticcms.verify.cache.time}: Histogram of the time verifying parent-child relationships as pages are
+ *       added to the request cache.</li>
+ *   <li>{@code semanticcms.verify.full.time}: Histogram of the time performing full parent-child verification of
+ *       body captures.</li>
+ *   <li>{@code semanticcms.traversal.time}: Histogram of the total time of each traversal.</li>
+ *   <li>{@code semanticcms.traversal.fanout}: Histogram of the number of edges from each page visited by a traversal.</li>
+ *   <li>{@code semanticcms.coordinator.concurrent}, {@code semanticcms.coordinator.sequential}: Counters of the
+ *       requests selected for concurrent or sequential processing.</li>
+ *   <li>{@code semanticcms.coordinator.budget}: Histogram of the concurrency budget given to each request.</li>
+ *   <li>{@code semanticcms.executor.queue.depth.<priority>}: Histogram of the queue depth seen by each task submitted
+ *       with a {@link CapturePriority}, in lower case.</li>
+ *   <li>{@code semanticcms.executor.queue.time.<priority>}: Histogram of the time each task waited before being run.</li>
+ * </ul>
+ *
+ * <p>The same measurements of captures and traversals are also available as Java Flight Recorder events, under the
+ * "SemanticCMS" category.</p>
+ */
+public interface CaptureMetrics {
+
+  /**
+   * A monotonically increasing count.
+   */
+  @FunctionalInterface
+  public static interface Counter {
+    void increment();
+  }
+
+  /**
+   * A distribution of recorded values.
+   */
+  @FunctionalInterface
+  public static interface Histogram {
+    void record(long value);
+  }
+
+  /**
+   * Gets the counter for the given name.
+   */
+  Counter getCounter(String name);
+
+  /**
+   * Gets the histogram for the given name.
+   */
+  Histogram getHistogram(String name);
+
+  /**
+   * Metrics that discard all values.  This is the default.
+   */
+  CaptureMetrics NONE = new CaptureMetrics() {
+    private final Counter counter = () -> {
+      // Do nothing
+    };
+
+    private final Histogram histogram = value -> {
+      // Do nothing
+    };
+
+    @Override
+    public Counter getCounter(String name) {
+      return counter;
+    }
+
+    @Override
+    public Histogram getHistogram(String name) {
+      return histogram;
+    }
+  };
+}
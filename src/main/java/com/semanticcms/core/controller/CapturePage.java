@@ -24,7 +24,6 @@
 package com.semanticcms.core.controller;
 
 import com.aoapps.collections.AoCollections;
-import com.aoapps.concurrent.Executor;
 import com.aoapps.lang.NullArgumentException;
 import com.aoapps.lang.concurrent.ExecutionExceptions;
 import com.aoapps.servlet.subrequest.HttpServletSubRequest;
@@ -52,6 +51,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -63,6 +63,9 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @SuppressWarnings("UseOfSystemOutOrSystemErr")
 public final class CapturePage {
@@ -72,6 +75,8 @@ public final class CapturePage {
     throw new AssertionError();
   }
 
+  private static final Logger logger = Logger.getLogger(CapturePage.class.getName());
+
   private static final boolean CONCURRENT_TRAVERSALS_ENABLED = true;
 
   private static final boolean DEBUG = false;
@@ -133,35 +138,69 @@ public final class CapturePage {
         new HttpServletSubResponseWrapper(response, TempFileContextEE.get(request)),
         pageReferrer,
         level,
-        cache
+        cache,
+        CaptureDeadline.getDeadline(request)
     );
   }
 
+  /**
+   * @param deadline  Optional, checked before dispatching the subrequest, see {@link CaptureDeadline#getDeadline(jakarta.servlet.ServletRequest)}
+   */
+  private static Page capturePage(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      IHttpServletSubRequest subRequest,
+      IHttpServletSubResponse subResponse,
+      PageReferrer pageReferrer,
+      CaptureLevel level,
+      Cache cache,
+      CaptureDeadline deadline
+  ) throws ServletException, IOException {
+    NullArgumentException.checkNotNull(level, "level");
+    PageRef pageRef = pageReferrer.getPageRef();
+    CaptureTrace.Span span = CaptureTrace.startCapture(pageRef, level);
+    if (span == null) {
+      return capturePage(servletContext, request, response, subRequest, subResponse, pageRef, level, cache, deadline, null);
+    }
+    try {
+      return capturePage(servletContext, request, response, subRequest, subResponse, pageRef, level, cache, deadline, span);
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * @param span  The trace span of this capture or {@code null} when not tracing
+   */
   private static Page capturePage(
       final ServletContext servletContext,
       HttpServletRequest request,
       HttpServletResponse response,
       final IHttpServletSubRequest subRequest,
       final IHttpServletSubResponse subResponse,
-      PageReferrer pageReferrer,
+      final PageRef pageRef,
       final CaptureLevel level,
-      Cache cache
+      Cache cache,
+      CaptureDeadline deadline,
+      CaptureTrace.Span span
   ) throws ServletException, IOException {
-    NullArgumentException.checkNotNull(level, "level");
-    final PageRef pageRef = pageReferrer.getPageRef();
-
     // Don't use cache for full body captures
     boolean useCache = level != CaptureLevel.BODY;
 
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
     // cacheKey will be null when this capture is not to be cached
-    final Cache.CaptureKey cacheKey;
+    final PageRef cacheKey;
     Page capturedPage;
     if (useCache) {
-      // Check the cache
-      cacheKey = new Cache.CaptureKey(pageRef, level);
-      Cache.CaptureResult capturedResult = cache.get(cacheKey);
-      if (capturedResult != null) {
-        capturedPage = capturedResult.page;
+      // Check the cache, which interns its keys only when adding
+      cacheKey = pageRef;
+      Page cached = cache.get(cacheKey, level);
+      if (cached != null) {
+        if (span != null) {
+          span.setCacheHit(true);
+        }
+        capturedPage = Cache.found(cached);
         if (capturedPage == null) {
           // Cached page not found
           return null;
@@ -177,40 +216,42 @@ public final class CapturePage {
     }
 
     if (capturedPage == null) {
-      // Find the book
-      SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
-      final BookRef bookRef = pageRef.getBookRef();
-      Book book = semanticCms.getBook(bookRef);
-      if (!book.isAccessible()) {
-        throw new ServletException("Book is inaccessible: " + bookRef);
-      }
-      final PageRepository repository = book.getPages();
-      if (!repository.isAvailable()) {
-        throw new ServletException("Page repository is unavailable: " + repository);
-      }
-      // TODO: A way to do this without a hard dependency on LocalPageRepository?
-      capturedPage = PageContext.newPageContext(
-          servletContext,
-          subRequest,
-          subResponse,
-          () -> repository.getPage(pageRef.getPath(), level)
-      );
-      if (capturedPage != null) {
-        PageRef capturedPageRef = capturedPage.getPageRef();
-        if (!capturedPageRef.equals(pageRef)) {
-          throw new ServletException(
-              "Captured page has unexpected pageRef.  Expected ("
-                  + pageRef.getBookRef() + ", " + pageRef.getPath()
-                  + ") but got ("
-                  + capturedPageRef.getBookRef() + ", " + capturedPageRef.getPath()
-                  + ')'
-          );
+      SharedCaptureCache sharedCache = semanticCms.getSharedCaptureCache();
+      SharedCaptureCache.Captured shared = (cacheKey != null && sharedCache.isEnabled()) ? sharedCache.get(cacheKey, level) : null;
+      if (shared != null) {
+        if (span != null) {
+          span.setCacheHit(true);
+        }
+        capturedPage = shared.page;
+        if (sharedCache.isStale(shared)) {
+          revalidate(servletContext, request, response, semanticCms, sharedCache, shared, cacheKey, level);
+        }
+      } else {
+        // Do not start new captures once the request has been cancelled or exceeded its deadline
+        if (deadline != null) {
+          deadline.check();
+        }
+        if (span != null && useCache) {
+          span.setCacheHit(false);
+        }
+        boolean share = cacheKey != null && sharedCache.isEnabled();
+        long generation = share ? sharedCache.getGeneration() : 0;
+        capturedPage = capture(servletContext, semanticCms, subRequest, subResponse, pageRef, level, deadline);
+        if (share) {
+          sharedCache.put(cacheKey, level, capturedPage, generation);
         }
       }
     }
     if (useCache) {
-      // Add to cache
-      cache.put(cacheKey, capturedPage);
+      // Add to cache, which also verifies
+      CaptureTrace.Span verifySpan = span == null ? null : CaptureTrace.start(CaptureTrace.Kind.VERIFY, "cache", level);
+      try {
+        cache.put(cacheKey, level, capturedPage);
+      } finally {
+        if (verifySpan != null) {
+          verifySpan.end();
+        }
+      }
     } else {
       if (
           (
@@ -221,12 +262,144 @@ public final class CapturePage {
                   || level == null
             ) && capturedPage != null
       ) {
-        PageUtils.fullVerifyParentChild(servletContext, request, response, capturedPage);
+        CaptureTrace.Span verifySpan = span == null ? null : CaptureTrace.start(CaptureTrace.Kind.VERIFY, "full", level);
+        long startTime = System.nanoTime();
+        try {
+          PageUtils.fullVerifyParentChild(servletContext, request, response, capturedPage);
+        } finally {
+          semanticCms.getInstrumentation().verifyFullTime.record(System.nanoTime() - startTime);
+          if (verifySpan != null) {
+            verifySpan.end();
+          }
+        }
       }
     }
     return capturedPage;
   }
 
+  /**
+   * Performs the capture subrequest, bypassing all caches.
+   *
+   * @param deadline  Optional, limits the time waiting on another request's identical capture
+   *
+   * @return  The captured page or {@code null} if page does not exist.
+   */
+  private static Page capture(
+      ServletContext servletContext,
+      SemanticCMS semanticCms,
+      IHttpServletSubRequest subRequest,
+      IHttpServletSubResponse subResponse,
+      PageRef pageRef,
+      CaptureLevel level,
+      CaptureDeadline deadline
+  ) throws ServletException, IOException {
+    CaptureEvent event = new CaptureEvent();
+    event.begin();
+    long startTime = System.nanoTime();
+    // Find the book
+    final BookRef bookRef = pageRef.getBookRef();
+    Book book = semanticCms.getBook(bookRef);
+    if (!book.isAccessible()) {
+      throw new ServletException("Book is inaccessible: " + bookRef);
+    }
+    final PageRepository repository = book.getPages();
+    if (!repository.isAvailable()) {
+      throw new ServletException("Page repository is unavailable: " + repository);
+    }
+    // TODO: A way to do this without a hard dependency on LocalPageRepository?
+    // Merges with any identical capture already in progress for another request
+    Page capturedPage = semanticCms.getCaptureCoalescer().capture(
+        pageRef,
+        level,
+        deadline,
+        () -> PageContext.newPageContext(
+            servletContext,
+            subRequest,
+            subResponse,
+            () -> repository.getPage(pageRef.getPath(), level)
+        )
+    );
+    semanticCms.getInstrumentation().captureTime(level).record(System.nanoTime() - startTime);
+    event.end();
+    if (event.shouldCommit()) {
+      event.book = bookRef.toString();
+      event.path = pageRef.getPath().toString();
+      event.level = level.name();
+      event.found = capturedPage != null;
+      event.commit();
+    }
+    if (capturedPage != null) {
+      PageRef capturedPageRef = capturedPage.getPageRef();
+      if (!capturedPageRef.equals(pageRef)) {
+        throw new ServletException(
+            "Captured page has unexpected pageRef.  Expected ("
+                + pageRef.getBookRef() + ", " + pageRef.getPath()
+                + ") but got ("
+                + capturedPageRef.getBookRef() + ", " + capturedPageRef.getPath()
+                + ')'
+        );
+      }
+    }
+    return capturedPage;
+  }
+
+  /**
+   * Starts a single background re-capture of a stale shared capture.  The re-capture is not tied to the current
+   * request: it is performed on unmodifiable copies of the request and response, outside of any trace, with its own
+   * temporary files and cache and without the deadline of the request, and the current request does not wait for it.  A failed or discarded re-capture leaves the
+   * stale capture in place, to be re-captured by a later request.
+   */
+  private static void revalidate(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      SemanticCMS semanticCms,
+      SharedCaptureCache sharedCache,
+      SharedCaptureCache.Captured stale,
+      PageRef cacheKey,
+      CaptureLevel level
+  ) {
+    if (sharedCache.startRevalidation(stale)) {
+      final long generation = sharedCache.getGeneration();
+      final HttpServletRequest threadSafeReq = new UnmodifiableCopyHttpServletRequest(request);
+      final HttpServletResponse threadSafeResp = new UnmodifiableCopyHttpServletResponse(response);
+      semanticCms.getExecutors().submit(
+          CapturePriority.VERIFICATION,
+          CaptureTrace.detach(() -> {
+            long startTime = System.nanoTime();
+            boolean added = false;
+            try (TempFileContext tempFileContext = new TempFileContext()) {
+              HttpServletSubRequest subRequest = new HttpServletSubRequest(threadSafeReq);
+              // Nested captures must not use the cache or deadline of the request, which may have already completed
+              CacheFilter.detach(subRequest, new ConcurrentCache(semanticCms));
+              added = sharedCache.put(
+                  cacheKey,
+                  level,
+                  capture(
+                      servletContext,
+                      semanticCms,
+                      subRequest,
+                      new HttpServletSubResponse(threadSafeResp, tempFileContext),
+                      cacheKey,
+                      level,
+                      null
+                  ),
+                  generation
+              );
+            } catch (IOException | ServletException | RuntimeException e) {
+              logger.log(Level.WARNING, "Background re-capture failed: " + cacheKey, e);
+            } finally {
+              if (!added) {
+                sharedCache.endRevalidation(stale);
+              }
+              semanticCms.getInstrumentation().sharedCacheRevalidationTime.record(System.nanoTime() - startTime);
+            }
+            return null;
+          })
+      );
+    }
+  }
+
   /**
    * Captures a page in the current page context.
    * The capture is always done with a request method of "GET", even when the enclosing request is a different method.
@@ -253,48 +426,239 @@ public final class CapturePage {
   /**
    * Captures multiple pages.
    *
+   * <p>The results are built from {@link #capturePagesInOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.CaptureHandler)},
+   * so the map follows the iteration order of {@code pageReferrers}.</p>
+   *
    * @param  pageReferrers  The pages that should be captured.  This set will be iterated only once during this operation.
    *
    * @return  map from pageRef to page, with iteration order equal to the provided pageRefs parameter.
    *          the map will contain {@code null} values for pages not found.
    *
    * @see  CapturePage#capturePage(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.model.PageReferrer, com.semanticcms.core.pages.CaptureLevel)
+   * @see  CapturePage#capturePagesInOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.CaptureHandler)
    */
   public static Map<PageRef, Page> capturePages(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Set<? extends PageReferrer> pageReferrers,
+      CaptureLevel level
+  ) throws ServletException, IOException {
+    return capturePages(servletContext, request, response, pageReferrers, level, CapturePriority.INTERACTIVE);
+  }
+
+  /**
+   * Captures multiple pages, with any concurrent subrequests scheduled at the given priority.
+   *
+   * @see  CapturePage#capturePages(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel)
+   */
+  static Map<PageRef, Page> capturePages(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Set<? extends PageReferrer> pageReferrers,
+      CaptureLevel level,
+      CapturePriority priority
+  ) throws ServletException, IOException {
+    int size = pageReferrers.size();
+    if (size == 0) {
+      return Collections.emptyMap();
+    } else if (size == 1) {
+      PageRef pageRef = pageReferrers.iterator().next().getPageRef();
+      return Collections.singletonMap(
+          pageRef,
+          capturePage(servletContext, request, response, pageRef, level)
+      );
+    } else {
+      Map<PageRef, Page> results = AoCollections.newLinkedHashMap(size);
+      CapturePage.<Void>capturePages(
+          servletContext,
+          request,
+          response,
+          pageReferrers,
+          level,
+          priority,
+          true,
+          (pageRef, page) -> {
+            results.put(pageRef, page);
+            return null;
+          }
+      );
+      return Collections.unmodifiableMap(results);
+    }
+  }
+
+  @FunctionalInterface
+  public static interface CaptureHandler<T> {
+    /**
+     * Called on the main thread (the thread invoking the capture method) as each page is available.
+     *
+     * @param  page  The captured page or {@code null} if page does not exist.
+     *
+     * @return non-null value to terminate the captures and return this value
+     */
+    T handleCapture(PageRef pageRef, Page page) throws ServletException, IOException;
+  }
+
+  /**
+   * Captures multiple pages, delivering each page in the order of the provided pageReferrers as soon as it
+   * and all pages before it are available.  This allows the caller to begin using the first pages before the
+   * slowest page is captured, while preserving order.
+   *
+   * <p>The captureHandler is called on the main thread (the thread invoking this method).  Once it returns non-null,
+   * no further pages are delivered and any remaining concurrent captures are cancelled.</p>
+   *
+   * @param  pageReferrers  The pages that should be captured.  This set will be iterated only once during this operation.
+   *
+   * @return  The first non-null value returned by captureHandler or {@code null} when all pages were delivered.
+   *
+   * @see  CapturePage#capturePagesAnyOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.CaptureHandler)
+   */
+  public static <T> T capturePagesInOrder(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Set<? extends PageReferrer> pageReferrers,
+      CaptureLevel level,
+      CaptureHandler<? extends T> captureHandler
+  ) throws ServletException, IOException {
+    return capturePages(servletContext, request, response, pageReferrers, level, CapturePriority.INTERACTIVE, true, captureHandler);
+  }
+
+  /**
+   * Captures multiple pages, delivering each page as soon as it is available.  Pages already in the cache are
+   * delivered first, followed by the remaining pages in the order their captures complete.
+   *
+   * <p>The captureHandler is called on the main thread (the thread invoking this method).  Once it returns non-null,
+   * no further pages are delivered and any remaining concurrent captures are cancelled.</p>
+   *
+   * @param  pageReferrers  The pages that should be captured.  This set will be iterated only once during this operation.
+   *
+   * @return  The first non-null value returned by captureHandler or {@code null} when all pages were delivered.
+   *
+   * @see  CapturePage#capturePagesInOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.CaptureHandler)
+   */
+  public static <T> T capturePagesAnyOrder(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Set<? extends PageReferrer> pageReferrers,
+      CaptureLevel level,
+      CaptureHandler<? extends T> captureHandler
+  ) throws ServletException, IOException {
+    return capturePages(servletContext, request, response, pageReferrers, level, CapturePriority.INTERACTIVE, false, captureHandler);
+  }
+
+  /**
+   * Delivers captured pages to a handler, optionally holding back pages until all pages before them are delivered.
+   */
+  private static final class CaptureReleaser<T> {
+
+    private final PageRef[] pageRefs;
+    private final boolean ordered;
+    private final CaptureHandler<? extends T> captureHandler;
+
+    /**
+     * The pages held back in ordered mode, by index.
+     */
+    private final Page[] pages;
+
+    /**
+     * Which pages have been captured, by index, in ordered mode.
+     */
+    private final boolean[] captured;
+
+    /**
+     * The index of the next page to deliver in ordered mode.
+     */
+    private int next;
+
+    private CaptureReleaser(PageRef[] pageRefs, boolean ordered, CaptureHandler<? extends T> captureHandler) {
+      this.pageRefs = pageRefs;
+      this.ordered = ordered;
+      this.captureHandler = captureHandler;
+      this.pages = ordered ? new Page[pageRefs.length] : null;
+      this.captured = ordered ? new boolean[pageRefs.length] : null;
+    }
+
+    /**
+     * Called when the page at the given index is captured.
+     *
+     * @return  non-null value when the handler has terminated the captures
+     */
+    private T captured(int index, Page page) throws ServletException, IOException {
+      if (!ordered) {
+        return captureHandler.handleCapture(pageRefs[index], page);
+      }
+      pages[index] = page;
+      captured[index] = true;
+      while (next < pageRefs.length && captured[next]) {
+        int i = next++;
+        Page p = pages[i];
+        pages[i] = null;
+        T result = captureHandler.handleCapture(pageRefs[i], p);
+        if (result != null) {
+          return result;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static <T> T capturePages(
       final ServletContext servletContext,
       final HttpServletRequest request,
       final HttpServletResponse response,
       Set<? extends PageReferrer> pageReferrers,
-      final CaptureLevel level
+      final CaptureLevel level,
+      CapturePriority priority,
+      boolean ordered,
+      CaptureHandler<? extends T> captureHandler
   ) throws ServletException, IOException {
     int size = pageReferrers.size();
     if (size == 0) {
-      return Collections.emptyMap();
+      return null;
     } else if (size == 1) {
       PageRef pageRef = pageReferrers.iterator().next().getPageRef();
-      return Collections.singletonMap(
+      return captureHandler.handleCapture(
           pageRef,
           capturePage(servletContext, request, response, pageRef, level)
       );
     } else {
       final Cache cache = CacheFilter.getCache(request);
-      Map<PageRef, Page> results = AoCollections.newLinkedHashMap(size);
-      List<PageReferrer> notCachedList = new ArrayList<>(size);
+      PageRef[] pageRefs = new PageRef[size];
+      CaptureReleaser<T> releaser = new CaptureReleaser<>(pageRefs, ordered, captureHandler);
+      // The indexes of pages not in cache
+      List<Integer> notCachedList = new ArrayList<>(size);
+      { // Scoping block
+        int index = 0;
+        for (PageReferrer pageReferrer : pageReferrers) {
+          pageRefs[index] = pageReferrer.getPageRef();
+          index++;
+        }
+        if (index != size) {
+          throw new ConcurrentModificationException();
+        }
+      }
       if (level != CaptureLevel.BODY) {
         // Check cache before queuing on different threads, building list of those not in cache
-        for (PageReferrer pageReferrer : pageReferrers) {
-          PageRef pageRef = pageReferrer.getPageRef();
-          Cache.CaptureResult captureResult = cache.get(pageRef, level);
-          if (captureResult != null) {
+        for (int i = 0; i < size; i++) {
+          Page cached = cache.get(pageRefs[i], level);
+          if (cached != null) {
             // Use cached value
-            results.put(pageRef, captureResult.page);
+            T result = releaser.captured(i, Cache.found(cached));
+            if (result != null) {
+              return result;
+            }
           } else {
             // Will capture below
-            notCachedList.add(pageRef);
+            notCachedList.add(i);
           }
         }
       } else {
-        notCachedList.addAll(pageReferrers);
+        for (int i = 0; i < size; i++) {
+          notCachedList.add(i);
+        }
       }
 
       int notCachedSize = notCachedList.size();
@@ -306,10 +670,11 @@ public final class CapturePage {
         final TempFileContext tempFileContext = TempFileContextEE.get(request);
         final HttpServletRequest threadSafeReq = new UnmodifiableCopyHttpServletRequest(request);
         final HttpServletResponse threadSafeResp = new UnmodifiableCopyHttpServletResponse(response);
+        final CaptureDeadline deadline = CaptureDeadline.getDeadline(request);
         // Create the tasks
         List<Callable<Page>> tasks = new ArrayList<>(notCachedSize);
         for (int i = 0; i < notCachedSize; i++) {
-          final PageRef pageRef = notCachedList.get(i).getPageRef();
+          final PageRef pageRef = pageRefs[notCachedList.get(i)];
           tasks.add(
               () -> capturePage(
                   servletContext,
@@ -319,39 +684,159 @@ public final class CapturePage {
                   new HttpServletSubResponse(threadSafeResp, tempFileContext),
                   pageRef,
                   level,
-                  cache
+                  cache,
+                  deadline
               )
           );
         }
-        List<Page> notCachedResults;
         try {
-          notCachedResults = SemanticCMS.getInstance(servletContext).getExecutors().getPerProcessor().callAll(tasks);
+          SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+          return callAll(
+              semanticCms.getExecutors(),
+              priority,
+              semanticCms.getConcurrencyLimit(),
+              tasks,
+              ConcurrencyCoordinator.getConcurrencyBudget(request),
+              deadline,
+              (taskIndex, page) -> releaser.captured(notCachedList.get(taskIndex), page)
+          );
         } catch (InterruptedException e) {
           // Restore the interrupted status
           Thread.currentThread().interrupt();
           throw new ServletException(e);
         } catch (ExecutionException e) {
           // Maintain expected exception types while not losing stack trace
+          ExecutionExceptions.wrapAndThrow(e, CaptureCancelledException.class, CaptureCancelledException::new);
           ExecutionExceptions.wrapAndThrow(e, IOException.class, IOException::new);
           throw new ServletException(e);
         }
-        for (int i = 0; i < notCachedSize; i++) {
-          results.put(
-              notCachedList.get(i).getPageRef(),
-              notCachedResults.get(i)
-          );
-        }
       } else {
         // Sequential implementation
-        for (PageReferrer pageReferrer : notCachedList) {
-          PageRef pageRef = pageReferrer.getPageRef();
-          results.put(
-              pageRef,
-              capturePage(servletContext, request, response, pageRef, level, cache)
+        for (int index : notCachedList) {
+          T result = releaser.captured(
+              index,
+              capturePage(servletContext, request, response, pageRefs[index], level, cache)
           );
+          if (result != null) {
+            return result;
+          }
         }
+        return null;
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private static interface ResultHandler<T, R> {
+    /**
+     * Called on the main thread as each task completes.
+     *
+     * @return non-null value to stop calling tasks and return this value
+     */
+    R handleResult(int index, T result) throws ServletException, IOException;
+  }
+
+  /**
+   * Calls all the tasks, submitting no more than {@code budget} tasks to the executor at a time.
+   * Each result is passed to the resultHandler, in the order completed, as soon as it is available.
+   * The timing of each task is reported to the concurrency limit.
+   * No further tasks are submitted once the deadline is cancelled or exceeded.
+   *
+   * @param  deadline  Optional, {@code null} when there is no deadline
+   *
+   * @return  The first non-null value returned by resultHandler or {@code null} when all tasks were called.
+   *
+   * @see  ConcurrencyCoordinator#getConcurrencyBudget(jakarta.servlet.ServletRequest)
+   */
+  private static <T, R> R callAll(
+      Executors executors,
+      CapturePriority priority,
+      AdaptiveConcurrencyLimit concurrencyLimit,
+      List<? extends Callable<? extends T>> tasks,
+      int budget,
+      CaptureDeadline deadline,
+      ResultHandler<? super T, ? extends R> resultHandler
+  ) throws InterruptedException, ExecutionException, ServletException, IOException {
+    final int size = tasks.size();
+    final int maxFutures = Math.min(size, budget);
+    // Track which futures have been completed (callable put its index here once done)
+    final BlockingQueue<Integer> finishedFutures = new ArrayBlockingQueue<>(maxFutures);
+    final List<Future<T>> futures = new ArrayList<>(size);
+    try {
+      int completed = 0;
+      do {
+        // Submit to the futures, but only up to budget
+        while (
+            futures.size() - completed < maxFutures
+                && futures.size() < size
+        ) {
+          if (deadline != null) {
+            deadline.check();
+          }
+          final int index = futures.size();
+          final Callable<? extends T> task = tasks.get(index);
+          final long submitted = System.nanoTime();
+          futures.add(
+              executors.submit(priority, () -> {
+                long started = System.nanoTime();
+                try {
+                  return task.call();
+                } finally {
+                  concurrencyLimit.onSample(started - submitted, System.nanoTime() - started);
+                  // There should always be enough room in the queue since the futures are limited going in
+                  finishedFutures.add(index);
+                }
+              })
+          );
+        }
+        // Wait until a result is available, get() to propagate any exception
+        int index = take(finishedFutures, deadline);
+        R result = resultHandler.handleResult(index, futures.get(index).get());
+        if (result != null) {
+          return result;
+        }
+        completed++;
+      } while (completed < size);
+      return null;
+    } finally {
+      // Always cancel unfinished futures on the way out, but do not delay for any in progress
+      for (Future<T> future : futures) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * The maximum number of nanoseconds to wait for a subrequest before rechecking the deadline,
+   * so that cancellation is noticed promptly even when there is no timeout.
+   */
+  private static final long DEADLINE_POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * Waits for the next finished subrequest, giving up when the deadline is cancelled or exceeded.
+   *
+   * @param  deadline  Optional, {@code null} to wait indefinitely
+   */
+  private static <E> E take(BlockingQueue<E> finishedFutures, CaptureDeadline deadline) throws InterruptedException, CaptureCancelledException {
+    CaptureTrace.Span span = CaptureTrace.start(CaptureTrace.Kind.WAIT, "subrequest", null);
+    try {
+      if (deadline == null) {
+        return finishedFutures.take();
+      }
+      while (true) {
+        deadline.check();
+        E finished = finishedFutures.poll(
+            Math.min(deadline.getRemainingNanos(), DEADLINE_POLL_INTERVAL),
+            TimeUnit.NANOSECONDS
+        );
+        if (finished != null) {
+          return finished;
+        }
+      }
+    } finally {
+      if (span != null) {
+        span.end();
       }
-      return Collections.unmodifiableMap(results);
     }
   }
 
@@ -374,6 +859,48 @@ public final class CapturePage {
     );
   }
 
+  /**
+   * Captures multiple pages in the current page context, delivering each page in order as soon as available.
+   *
+   * @see  CapturePage#capturePagesInOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.CaptureHandler)
+   * @see  PageContext
+   */
+  public static <T> T capturePagesInOrder(
+      Set<? extends PageReferrer> pageReferrers,
+      CaptureLevel level,
+      CaptureHandler<? extends T> captureHandler
+  ) throws ServletException, IOException {
+    return capturePagesInOrder(
+        PageContext.getServletContext(),
+        PageContext.getRequest(),
+        PageContext.getResponse(),
+        pageReferrers,
+        level,
+        captureHandler
+    );
+  }
+
+  /**
+   * Captures multiple pages in the current page context, delivering each page as soon as available.
+   *
+   * @see  CapturePage#capturePagesAnyOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.CaptureHandler)
+   * @see  PageContext
+   */
+  public static <T> T capturePagesAnyOrder(
+      Set<? extends PageReferrer> pageReferrers,
+      CaptureLevel level,
+      CaptureHandler<? extends T> captureHandler
+  ) throws ServletException, IOException {
+    return capturePagesAnyOrder(
+        PageContext.getServletContext(),
+        PageContext.getRequest(),
+        PageContext.getResponse(),
+        pageReferrers,
+        level,
+        captureHandler
+    );
+  }
+
   @FunctionalInterface
   public static interface TraversalEdges {
     /**
@@ -494,37 +1021,69 @@ public final class CapturePage {
       EdgeFilter edgeFilter
   ) throws ServletException, IOException {
     Cache cache = level == CaptureLevel.BODY ? null : CacheFilter.getCache(request);
-    if (
-        CONCURRENT_TRAVERSALS_ENABLED
-            && ConcurrencyCoordinator.useConcurrentSubrequests(request)
-    ) {
-      return traversePagesAnyOrderConcurrent(
-          servletContext,
-          request,
-          response,
-          root,
-          level,
-          pageHandler,
-          edges,
-          edgeFilter,
-          cache,
-          null
-      );
-    } else {
-      return traversePagesDepthFirstRecurseSequential(servletContext,
-          request,
-          response,
-          root,
-          0,
-          level,
-          (Page page, int depth) -> pageHandler.handlePage(page),
-          edges,
-          edgeFilter,
-          null,
-          TempFileContextEE.get(request),
-          cache,
-          new HashSet<>()
-      );
+    boolean concurrent = CONCURRENT_TRAVERSALS_ENABLED && ConcurrencyCoordinator.useConcurrentSubrequests(request);
+    TraversalEvent event = new TraversalEvent();
+    event.begin();
+    long startTime = System.nanoTime();
+    CaptureTrace.Span span = CaptureTrace.start(CaptureTrace.Kind.TRAVERSAL, root.getPageRef().toString(), level);
+    try {
+      if (concurrent) {
+        return traversePagesAnyOrderConcurrent(
+            servletContext,
+            request,
+            response,
+            root,
+            level,
+            pageHandler,
+            edges,
+            edgeFilter,
+            cache,
+            null
+        );
+      } else {
+        return traversePagesDepthFirstRecurseSequential(servletContext,
+            request,
+            response,
+            root,
+            0,
+            level,
+            (Page page, int depth) -> pageHandler.handlePage(page),
+            edges,
+            edgeFilter,
+            null,
+            TempFileContextEE.get(request),
+            cache,
+            new HashSet<>()
+        );
+      }
+    } finally {
+      if (span != null) {
+        span.end();
+      }
+      traversalEnded(servletContext, root, level, concurrent, event, startTime);
+    }
+  }
+
+  /**
+   * Records the metrics and event for a completed traversal.
+   */
+  private static void traversalEnded(
+      ServletContext servletContext,
+      Page root,
+      CaptureLevel level,
+      boolean concurrent,
+      TraversalEvent event,
+      long startTime
+  ) {
+    SemanticCMS.getInstance(servletContext).getInstrumentation().traversalTime.record(System.nanoTime() - startTime);
+    event.end();
+    if (event.shouldCommit()) {
+      PageRef rootRef = root.getPageRef();
+      event.book = rootRef.getBookRef().toString();
+      event.path = rootRef.getPath().toString();
+      event.level = level.name();
+      event.concurrent = concurrent;
+      event.commit();
     }
   }
 
@@ -555,15 +1114,20 @@ public final class CapturePage {
     HttpServletRequest threadSafeReq = null;
     HttpServletResponse threadSafeResp = null;
     // Find the executor
-    final Executor concurrentSubrequestExecutor;
-    final int preferredConcurrency;
+    final Executors executors;
+    final AdaptiveConcurrencyLimit concurrencyLimit;
+    final int concurrencyBudget;
+    final CaptureMetrics.Histogram traversalFanOut;
     { // Scoping block
-      final Executors executors = SemanticCMS.getInstance(servletContext).getExecutors();
-      concurrentSubrequestExecutor = executors.getPerProcessor();
-      preferredConcurrency = executors.getPreferredConcurrency();
-      assert preferredConcurrency > 1 : "Single-CPU systems should never make it to this concurrent implementation";
+      final SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+      executors = semanticCms.getExecutors();
+      concurrencyLimit = semanticCms.getConcurrencyLimit();
+      concurrencyBudget = ConcurrencyCoordinator.getConcurrencyBudget(request);
+      traversalFanOut = semanticCms.getInstrumentation().traversalFanOut;
+      assert concurrencyBudget > 1 : "Sequential requests should never make it to this concurrent implementation";
     }
     final TempFileContext tempFileContext = TempFileContextEE.get(request);
+    final CaptureDeadline deadline = CaptureDeadline.getDeadline(request);
 
     int maxSize = 0;
 
@@ -574,13 +1138,13 @@ public final class CapturePage {
     // New ready pages, used to add in the correct order to readyPages based on traversal direction hints
     final List<Page> newReadyPages = new ArrayList<>();
     // Track which futures have been completed (callable put itself here once done)
-    final BlockingQueue<PageRef> finishedFutures = new ArrayBlockingQueue<>(preferredConcurrency);
+    final BlockingQueue<PageRef> finishedFutures = new ArrayBlockingQueue<>(concurrencyBudget);
     // Does not immediately submit to the executor, waits until the readyPages are exhausted
     final List<PageRef> edgesToAdd = new ArrayList<>();
     // New edges to add, used to add in the correct order to edgesToAdd based on traversal direction hints
     final List<PageRef> newEdgesToAdd = new ArrayList<>();
     // The futures are queued, active, or finished but not yet processed by main thread
-    final Map<PageRef, Future<Page>> futures = AoCollections.newHashMap(preferredConcurrency);
+    final Map<PageRef, Future<Page>> futures = AoCollections.newHashMap(concurrencyBudget);
     try {
       // Kick it off
       visited.add(page.getPageRef());
@@ -619,7 +1183,9 @@ public final class CapturePage {
           // Update next from any hint
           next = getNext(nextHint);
           // Add any children not yet visited
-          for (PageReferrer edgeRef : edges.getEdges(readyPage)) {
+          Collection<? extends PageReferrer> readyPageEdges = edges.getEdges(readyPage);
+          traversalFanOut.record(readyPageEdges.size());
+          for (PageReferrer edgeRef : readyPageEdges) {
             PageRef edge = edgeRef.getPageRef();
             if (
                 !visited.contains(edge)
@@ -630,14 +1196,14 @@ public final class CapturePage {
             ) {
               visited.add(edge);
               // Check cache before going to concurrency
-              Cache.CaptureResult cached;
+              Page cached;
               if (level == CaptureLevel.BODY) {
                 cached = null;
               } else {
                 cached = cache.get(edge, level);
               }
               if (cached != null) {
-                newReadyPages.add(cached.page); // TODO: What to do with null pages here?  Error when traversal gets page not found?
+                newReadyPages.add(Cache.found(cached)); // TODO: What to do with null pages here?  Error when traversal gets page not found?
               } else {
                 newEdgesToAdd.add(edge);
               }
@@ -688,15 +1254,20 @@ public final class CapturePage {
                 edgesToAdd.add(edgesToAdd.remove(i));
               }
             }
-            // Submit to the futures, but only up to preferredConcurrency
+            // Submit to the futures, but only up to concurrencyBudget
             while (
-                futures.size() < preferredConcurrency
+                futures.size() < concurrencyBudget
                     && !edgesToAdd.isEmpty()
             ) {
+              if (deadline != null) {
+                deadline.check();
+              }
               final PageRef edge = edgesToAdd.remove(edgesToAdd.size() - 1);
+              final long submitted = System.nanoTime();
               futures.put(
                   edge,
-                  concurrentSubrequestExecutor.submit(() -> {
+                  executors.submit(CapturePriority.TRAVERSAL, () -> {
+                    long started = System.nanoTime();
                     try {
                       // TODO: What to do when returns null?
                       return capturePage(
@@ -707,9 +1278,11 @@ public final class CapturePage {
                           new HttpServletSubResponse(finalThreadSafeResp, tempFileContext),
                           edge,
                           level,
-                          cache
+                          cache,
+                          deadline
                       );
                     } finally {
+                      concurrencyLimit.onSample(started - submitted, System.nanoTime() - started);
                       // This one is ready now
                       // There should always be enough room in the queue since the futures are limited going in
                       finishedFutures.add(edge);
@@ -751,7 +1324,7 @@ public final class CapturePage {
             }
             if (future == null) {
               // wait until a result is available
-              future = futures.remove(finishedFutures.take());
+              future = futures.remove(take(finishedFutures, deadline));
             }
             readyPages.add(future.get());
           }
@@ -765,6 +1338,7 @@ public final class CapturePage {
       throw new ServletException(e);
     } catch (ExecutionException e) {
       // Maintain expected exception types while not losing stack trace
+      ExecutionExceptions.wrapAndThrow(e, CaptureCancelledException.class, CaptureCancelledException::new);
       ExecutionExceptions.wrapAndThrow(e, IOException.class, IOException::new);
       throw new ServletException(e);
     } finally {
@@ -858,37 +1432,46 @@ public final class CapturePage {
       PageDepthHandler<? extends T> postHandler
   ) throws ServletException, IOException {
     Cache cache = level == CaptureLevel.BODY ? null : CacheFilter.getCache(request);
-    if (
-        CONCURRENT_TRAVERSALS_ENABLED
-            && ConcurrencyCoordinator.useConcurrentSubrequests(request)
-    ) {
-      return traversePagesDepthFirstConcurrent(
-          servletContext,
-          request,
-          response,
-          root,
-          level,
-          preHandler,
-          edges,
-          edgeFilter,
-          postHandler,
-          cache
-      );
-    } else {
-      return traversePagesDepthFirstRecurseSequential(servletContext,
-          request,
-          response,
-          root,
-          0,
-          level,
-          preHandler,
-          edges,
-          edgeFilter,
-          postHandler,
-          TempFileContextEE.get(request),
-          cache,
-          new HashSet<>()
-      );
+    boolean concurrent = CONCURRENT_TRAVERSALS_ENABLED && ConcurrencyCoordinator.useConcurrentSubrequests(request);
+    TraversalEvent event = new TraversalEvent();
+    event.begin();
+    long startTime = System.nanoTime();
+    CaptureTrace.Span span = CaptureTrace.start(CaptureTrace.Kind.TRAVERSAL, root.getPageRef().toString(), level);
+    try {
+      if (concurrent) {
+        return traversePagesDepthFirstConcurrent(
+            servletContext,
+            request,
+            response,
+            root,
+            level,
+            preHandler,
+            edges,
+            edgeFilter,
+            postHandler,
+            cache
+        );
+      } else {
+        return traversePagesDepthFirstRecurseSequential(servletContext,
+            request,
+            response,
+            root,
+            0,
+            level,
+            preHandler,
+            edges,
+            edgeFilter,
+            postHandler,
+            TempFileContextEE.get(request),
+            cache,
+            new HashSet<>()
+        );
+      }
+    } finally {
+      if (span != null) {
+        span.end();
+      }
+      traversalEnded(servletContext, root, level, concurrent, event, startTime);
     }
   }
 
@@ -919,7 +1502,9 @@ public final class CapturePage {
         return result;
       }
     }
-    for (PageReferrer edgeRef : edges.getEdges(page)) {
+    Collection<? extends PageReferrer> pageEdges = edges.getEdges(page);
+    SemanticCMS.getInstance(servletContext).getInstrumentation().traversalFanOut.record(pageEdges.size());
+    for (PageReferrer edgeRef : pageEdges) {
       PageRef edge = edgeRef.getPageRef();
       if (
           !visited.contains(edge)
@@ -0,0 +1,65 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+/**
+ * The origin of a concurrent capture task, used by {@link Executors#submit(com.semanticcms.core.controller.CapturePriority, java.util.concurrent.Callable)}
+ * to share the executor between classes of work by weighted fair queuing.
+ *
+ * <p>Each class is given executor capacity in proportion to its weight whenever more than one class has tasks waiting.
+ * No class is starved, but small interactive captures are not stuck behind a large traversal.</p>
+ */
+public enum CapturePriority {
+
+  /**
+   * Captures performed directly on behalf of a page view, such as
+   * {@link CapturePage#capturePages(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel)}.
+   */
+  INTERACTIVE(8),
+
+  /**
+   * Captures performed by bulk traversals, such as
+   * {@link CapturePage#traversePagesAnyOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.model.Page, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.PageHandler, com.semanticcms.core.controller.CapturePage.TraversalEdges, com.semanticcms.core.controller.CapturePage.EdgeFilter)}.
+   */
+  TRAVERSAL(2),
+
+  /**
+   * Captures performed only to verify parent-child relationships, such as
+   * {@link PageUtils#fullVerifyParentChild(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.model.Page)}.
+   */
+  VERIFICATION(1);
+
+  private final int weight;
+
+  private CapturePriority(int weight) {
+    this.weight = weight;
+  }
+
+  /**
+   * Gets the relative share of the executor given to this class when other classes also have tasks waiting.
+   */
+  public int getWeight() {
+    return weight;
+  }
+}
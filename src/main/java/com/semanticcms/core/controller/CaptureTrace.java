@@ -0,0 +1,389 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.servlet.attribute.ScopeEE;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import jakarta.servlet.ServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An opt-in trace of the page captures performed for a single request, recorded as a tree of timed spans.
+ * Each span records the thread it ran on, and captures record their {@link CaptureLevel} and whether satisfied
+ * from the request cache.  Time spent verifying parent-child relationships and waiting on concurrent subrequests
+ * is recorded as separate spans.
+ *
+ * <p>Tracing is enabled by the context init parameter "{@code com.semanticcms.core.controller.SemanticCMS.captureTrace}".
+ * When enabled, {@link CacheFilter} starts a trace for each top-level request and logs a {@linkplain #toWaterfall() waterfall}
+ * for requests that take at least "{@code com.semanticcms.core.controller.SemanticCMS.captureTraceThreshold}" milliseconds
+ * (default 1000).  The trace is also available during the request from {@link #getTrace(jakarta.servlet.ServletRequest)}.</p>
+ *
+ * <p>The current span is tracked in a {@link ThreadLocal} and is passed to concurrent subrequests by {@link Executors}.
+ * When not tracing, each hook costs a single {@link ThreadLocal} lookup.</p>
+ */
+public final class CaptureTrace {
+
+  static final ScopeEE.Request.Attribute<CaptureTrace> REQUEST_ATTRIBUTE =
+      ScopeEE.REQUEST.attribute(CaptureTrace.class.getName());
+
+  /**
+   * Gets the trace for the given request.
+   *
+   * @return  The trace or {@code null} when tracing is not enabled
+   */
+  public static CaptureTrace getTrace(ServletRequest request) {
+    return REQUEST_ATTRIBUTE.context(request).get();
+  }
+
+  /**
+   * The maximum number of spans recorded in one trace, to bound memory of very large traversals.
+   */
+  private static final int MAX_SPANS = 100000;
+
+  /**
+   * The width, in characters, of the bars in the waterfall.
+   */
+  private static final int WATERFALL_WIDTH = 60;
+
+  private static final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+
+  /**
+   * The different kinds of spans.
+   */
+  enum Kind {
+    REQUEST,
+    CAPTURE,
+    TRAVERSAL,
+    VERIFY,
+    WAIT
+  }
+
+  /**
+   * One timed operation within a trace.
+   */
+  static final class Span {
+
+    private final CaptureTrace trace;
+    private final Span parent;
+    private final Kind kind;
+    private final String name;
+    private final CaptureLevel level;
+    private final String thread;
+    private final long start;
+    private final List<Span> children = new ArrayList<>();
+    private volatile long end;
+    private volatile Boolean cacheHit;
+
+    private Span(CaptureTrace trace, Span parent, Kind kind, String name, CaptureLevel level) {
+      this.trace = trace;
+      this.parent = parent;
+      this.kind = kind;
+      this.name = name;
+      this.level = level;
+      this.thread = Thread.currentThread().getName();
+      this.start = System.nanoTime();
+    }
+
+    /**
+     * Records whether this capture was satisfied from the request cache.
+     */
+    void setCacheHit(boolean cacheHit) {
+      this.cacheHit = cacheHit;
+    }
+
+    /**
+     * Ends this span, restoring its parent as the current span of this thread.
+     */
+    void end() {
+      end = System.nanoTime();
+      if (parent == null) {
+        currentSpan.remove();
+      } else {
+        currentSpan.set(parent);
+      }
+    }
+
+    private List<Span> getChildren() {
+      synchronized (children) {
+        return new ArrayList<>(children);
+      }
+    }
+
+    private long getEnd() {
+      long e = end;
+      // Unfinished spans, such as those abandoned by cancellation, are shown as lasting until the end of the trace
+      return e == 0 ? trace.getEnd() : e;
+    }
+  }
+
+  private final Span root;
+
+  private final AtomicInteger spanCount = new AtomicInteger(1);
+
+  private CaptureTrace(String name) {
+    this.root = new Span(this, null, Kind.REQUEST, name, null);
+  }
+
+  /**
+   * Starts a new trace, setting its root span as the current span of this thread.
+   */
+  static CaptureTrace start(String name) {
+    CaptureTrace trace = new CaptureTrace(name);
+    currentSpan.set(trace.root);
+    return trace;
+  }
+
+  /**
+   * Ends the trace, which must be called on the thread that started it.
+   */
+  void end() {
+    root.end();
+  }
+
+  private long getEnd() {
+    long e = root.end;
+    return e == 0 ? System.nanoTime() : e;
+  }
+
+  /**
+   * Gets the total duration of the trace, in nanoseconds.
+   */
+  public long getDurationNanos() {
+    return getEnd() - root.start;
+  }
+
+  /**
+   * Starts a child of the current span of this thread.
+   *
+   * @return  The new span, which must be {@linkplain Span#end() ended} on this thread,
+   *          or {@code null} when not tracing.
+   */
+  static Span start(Kind kind, String name, CaptureLevel level) {
+    Span parent = currentSpan.get();
+    if (parent == null) {
+      return null;
+    }
+    CaptureTrace trace = parent.trace;
+    if (trace.spanCount.incrementAndGet() > MAX_SPANS) {
+      return null;
+    }
+    Span span = new Span(trace, parent, kind, name, level);
+    synchronized (parent.children) {
+      parent.children.add(span);
+    }
+    currentSpan.set(span);
+    return span;
+  }
+
+  /**
+   * Starts a capture span for the given page.
+   *
+   * @see  #start(com.semanticcms.core.controller.CaptureTrace.Kind, java.lang.String, com.semanticcms.core.pages.CaptureLevel)
+   */
+  static Span startCapture(PageRef pageRef, CaptureLevel level) {
+    return currentSpan.get() == null ? null : start(Kind.CAPTURE, pageRef.toString(), level);
+  }
+
+  /**
+   * Passes the current span of this thread to the given task.
+   */
+  static <T> Callable<T> wrap(Callable<T> task) {
+    Span span = currentSpan.get();
+    if (span == null) {
+      return task;
+    }
+    return () -> {
+      Span previous = currentSpan.get();
+      currentSpan.set(span);
+      try {
+        return task.call();
+      } finally {
+        if (previous == null) {
+          currentSpan.remove();
+        } else {
+          currentSpan.set(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Passes the current span of this thread to the given task.
+   */
+  static Runnable wrap(Runnable task) {
+    Span span = currentSpan.get();
+    if (span == null) {
+      return task;
+    }
+    return () -> {
+      Span previous = currentSpan.get();
+      currentSpan.set(span);
+      try {
+        task.run();
+      } finally {
+        if (previous == null) {
+          currentSpan.remove();
+        } else {
+          currentSpan.set(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Runs the given task outside of any trace, such as background work that outlives the request that started it.
+   */
+  static <T> Callable<T> detach(Callable<T> task) {
+    return () -> {
+      Span previous = currentSpan.get();
+      currentSpan.remove();
+      try {
+        return task.call();
+      } finally {
+        if (previous != null) {
+          currentSpan.set(previous);
+        }
+      }
+    };
+  }
+
+  private static void appendJsonString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0, len = value.length(); i < len; i++) {
+      char ch = value.charAt(i);
+      switch (ch) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (ch < ' ') {
+            json.append(String.format("\\u%04x", (int) ch));
+          } else {
+            json.append(ch);
+          }
+      }
+    }
+    json.append('"');
+  }
+
+  private void appendJson(StringBuilder json, Span span) {
+    json.append("{\"kind\":");
+    appendJsonString(json, span.kind.name());
+    json.append(",\"name\":");
+    appendJsonString(json, span.name);
+    if (span.level != null) {
+      json.append(",\"level\":");
+      appendJsonString(json, span.level.name());
+    }
+    Boolean cacheHit = span.cacheHit;
+    if (cacheHit != null) {
+      json.append(",\"cacheHit\":").append(cacheHit);
+    }
+    json.append(",\"thread\":");
+    appendJsonString(json, span.thread);
+    json.append(",\"startMicros\":").append(TimeUnit.NANOSECONDS.toMicros(span.start - root.start));
+    json.append(",\"durationMicros\":").append(TimeUnit.NANOSECONDS.toMicros(span.getEnd() - span.start));
+    List<Span> children = span.getChildren();
+    if (!children.isEmpty()) {
+      json.append(",\"children\":[");
+      boolean didOne = false;
+      for (Span child : children) {
+        if (didOne) {
+          json.append(',');
+        } else {
+          didOne = true;
+        }
+        appendJson(json, child);
+      }
+      json.append(']');
+    }
+    json.append('}');
+  }
+
+  /**
+   * Gets the trace as a tree of JSON objects, with times in microseconds relative to the start of the request.
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder();
+    appendJson(json, root);
+    return json.toString();
+  }
+
+  private void appendWaterfall(StringBuilder out, Span span, int depth, long total) {
+    long offset = span.start - root.start;
+    long duration = span.getEnd() - span.start;
+    int barStart = (int) (offset * WATERFALL_WIDTH / total);
+    int barLength = Math.max(1, (int) (duration * WATERFALL_WIDTH / total));
+    if (barStart + barLength > WATERFALL_WIDTH) {
+      barStart = Math.max(0, WATERFALL_WIDTH - barLength);
+    }
+    out.append(String.format("%9.3f %9.3f |", offset / 1000000.0, duration / 1000000.0));
+    for (int i = 0; i < WATERFALL_WIDTH; i++) {
+      out.append(i >= barStart && i < barStart + barLength ? '#' : ' ');
+    }
+    out.append("| ");
+    for (int i = 0; i < depth; i++) {
+      out.append("  ");
+    }
+    out.append(span.kind).append(' ').append(span.name);
+    if (span.level != null) {
+      out.append(' ').append(span.level);
+    }
+    Boolean cacheHit = span.cacheHit;
+    if (cacheHit != null) {
+      out.append(cacheHit ? " (hit)" : " (miss)");
+    }
+    out.append(" [").append(span.thread).append("]\n");
+    for (Span child : span.getChildren()) {
+      appendWaterfall(out, child, depth + 1, total);
+    }
+  }
+
+  /**
+   * Gets the trace as a plain-text waterfall, one span per line, with the start offset and duration in milliseconds.
+   */
+  public String toWaterfall() {
+    StringBuilder out = new StringBuilder();
+    out.append(" start ms    dur ms\n");
+    appendWaterfall(out, root, 0, Math.max(1, getDurationNanos()));
+    return out.toString();
+  }
+}
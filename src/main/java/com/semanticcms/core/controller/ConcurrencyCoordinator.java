@@ -46,20 +46,23 @@ public class ConcurrencyCoordinator implements ServletContextListener, ServletRe
       ScopeEE.REQUEST.attribute(ConcurrencyCoordinator.class.getName() + ".concurrentProcessingRecommended");
   private static final ScopeEE.Request.Attribute<Boolean> CONCURRENT_SUBREQUESTS_RECOMMENDED_REQUEST_ATTRIBUTE =
       ScopeEE.REQUEST.attribute(ConcurrencyCoordinator.class.getName() + ".concurrentSubrequestsRecommended");
+  private static final ScopeEE.Request.Attribute<Integer> CONCURRENCY_BUDGET_REQUEST_ATTRIBUTE =
+      ScopeEE.REQUEST.attribute(ConcurrencyCoordinator.class.getName() + ".concurrencyBudget");
 
   private boolean concurrentSubrequests;
-  private int preferredConcurrency;
+  private AdaptiveConcurrencyLimit concurrencyLimit;
+  private SemanticCMS semanticCms;
 
   @Override
   public void contextInitialized(ServletContextEvent event) {
-    SemanticCMS semanticCms = SemanticCMS.getInstance(event.getServletContext());
+    semanticCms = SemanticCMS.getInstance(event.getServletContext());
     concurrentSubrequests = semanticCms.getConcurrentSubrequests();
-    preferredConcurrency = semanticCms.getExecutors().getPreferredConcurrency();
+    concurrencyLimit = semanticCms.getConcurrencyLimit();
   }
 
   @Override
   public void contextDestroyed(ServletContextEvent event) {
-    // Do nothing
+    semanticCms = null;
   }
 
   @Override
@@ -70,13 +73,19 @@ public class ConcurrencyCoordinator implements ServletContextListener, ServletRe
 
       assert CONCURRENT_PROCESSING_RECOMMENDED_REQUEST_ATTRIBUTE.context(request).get() == null;
       assert CONCURRENT_SUBREQUESTS_RECOMMENDED_REQUEST_ATTRIBUTE.context(request).get() == null;
+      assert CONCURRENCY_BUDGET_REQUEST_ATTRIBUTE.context(request).get() == null;
 
-      // On single-CPU systems, preferredConcurrency is 1 and concurrency will never be done
-      boolean concurrentProcessingRecommended = newConcurrency < preferredConcurrency;
+      // On single-CPU systems, the limit is 1 and concurrency will never be done
+      int concurrencyBudget = concurrencyLimit.getBudget(newConcurrency);
+      boolean concurrentProcessingRecommended = concurrencyBudget > 1;
       boolean concurrentSubrequestsRecommended = concurrentProcessingRecommended && concurrentSubrequests;
+      Instrumentation instrumentation = semanticCms.getInstrumentation();
+      instrumentation.coordinatorBudget.record(concurrencyBudget);
+      (concurrentSubrequestsRecommended ? instrumentation.coordinatorConcurrent : instrumentation.coordinatorSequential).increment();
 
       CONCURRENT_PROCESSING_RECOMMENDED_REQUEST_ATTRIBUTE.context(request).set(concurrentProcessingRecommended);
       CONCURRENT_SUBREQUESTS_RECOMMENDED_REQUEST_ATTRIBUTE.context(request).set(concurrentSubrequestsRecommended);
+      CONCURRENCY_BUDGET_REQUEST_ATTRIBUTE.context(request).set(concurrencyBudget);
     }
   }
 
@@ -86,6 +95,7 @@ public class ConcurrencyCoordinator implements ServletContextListener, ServletRe
       ServletRequest request = event.getServletRequest();
       CONCURRENT_PROCESSING_RECOMMENDED_REQUEST_ATTRIBUTE.context(request).remove();
       CONCURRENT_SUBREQUESTS_RECOMMENDED_REQUEST_ATTRIBUTE.context(request).remove();
+      CONCURRENCY_BUDGET_REQUEST_ATTRIBUTE.context(request).remove();
     }
   }
 
@@ -101,7 +111,8 @@ public class ConcurrencyCoordinator implements ServletContextListener, ServletRe
 
   /**
    * Checks if concurrent processing is recommended.
-   * Recommended when the overall request concurrency is less than the preferred concurrency.
+   * Recommended when the {@linkplain #getConcurrencyBudget(jakarta.servlet.ServletRequest) concurrency budget}
+   * is greater than one, which is when the overall request concurrency is less than the current adaptive limit.
    * This value will remain consistent throughout the processing of a request.
    *
    * @see  Executors#getPreferredConcurrency()
@@ -114,6 +125,27 @@ public class ConcurrencyCoordinator implements ServletContextListener, ServletRe
     return concurrentProcessingRecommended;
   }
 
+  /**
+   * Gets the number of concurrent tasks that the given request may have in progress at once.
+   * This is the request's fair share of an overall limit, where the overall limit adapts to observed executor load:
+   * it decreases when submitted tasks wait in the queue longer than they run and otherwise increases back toward
+   * {@link Executors#getPreferredConcurrency()}.
+   * This value will remain consistent throughout the processing of a request.
+   *
+   * <p>{@link CapturePage#capturePages(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, java.util.Set, com.semanticcms.core.pages.CaptureLevel) Captures}
+   * and {@link CapturePage#traversePagesAnyOrder(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, com.semanticcms.core.model.Page, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.controller.CapturePage.PageHandler, com.semanticcms.core.controller.CapturePage.TraversalEdges, com.semanticcms.core.controller.CapturePage.EdgeFilter) traversals}
+   * do not submit more than this number of concurrent subrequests.</p>
+   *
+   * @return  The budget, which is always at least one.  A budget of one indicates sequential processing.
+   */
+  public static int getConcurrencyBudget(ServletRequest request) {
+    Integer concurrencyBudget = CONCURRENCY_BUDGET_REQUEST_ATTRIBUTE.context(request).get();
+    if (concurrencyBudget == null) {
+      throw new IllegalStateException(ConcurrencyCoordinator.class.getName() + " listener not active on request");
+    }
+    return concurrencyBudget;
+  }
+
   /**
    * Determines if concurrent subrequests are currently allowed and advised for the given request.
    * <ol>
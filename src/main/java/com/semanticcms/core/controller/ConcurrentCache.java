@@ -26,9 +26,12 @@ package com.semanticcms.core.controller;
 import com.aoapps.lang.concurrent.CallableE;
 import com.semanticcms.core.model.Page;
 import jakarta.servlet.ServletException;
-import java.util.HashMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * A page cache that is thread safe through concurrent collections.
@@ -37,17 +40,136 @@ import java.util.concurrent.ConcurrentMap;
  */
 class ConcurrentCache extends MapCache {
 
-  private final ConcurrentMap<String, Object> concurrentAttributes;
+  /**
+   * The maximum time to wait for another thread computing the same attribute, after which the attribute is
+   * computed independently.  Waits by tasks started from within the computation are detected and never wait, so this
+   * only limits the effect of a computation that is stalled for other reasons.
+   */
+  private static final long MAX_ATTRIBUTE_WAIT_SECONDS = 10;
+
+  /**
+   * An attribute computation in progress.
+   */
+  private static final class Computing {
+
+    /**
+     * The computation in progress when this computation started, if any.
+     */
+    private final Computing parent = current.get();
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * Checks if the current thread is performing this computation, directly or within a task started from it.
+     */
+    private boolean isCurrent() {
+      for (Computing c = current.get(); c != null; c = c.parent) {
+        if (c == this) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The innermost attribute computation being performed by the current thread, including computations inherited from
+   * the thread that started the current task.
+   */
+  private static final ThreadLocal<Computing> current = new ThreadLocal<>();
+
+  /**
+   * Passes the attribute computations of the current thread to the given task, so a concurrent subrequest started
+   * while computing an attribute computes that same attribute directly instead of waiting on itself.
+   */
+  static <T> Callable<T> wrap(Callable<T> task) {
+    Computing computing = current.get();
+    if (computing == null) {
+      return task;
+    }
+    return () -> {
+      Computing previous = current.get();
+      current.set(computing);
+      try {
+        return task.call();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  /**
+   * Passes the attribute computations of the current thread to the given task.
+   */
+  static Runnable wrap(Runnable task) {
+    Computing computing = current.get();
+    if (computing == null) {
+      return task;
+    }
+    return () -> {
+      Computing previous = current.get();
+      current.set(computing);
+      try {
+        task.run();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  private static void restore(Computing previous) {
+    if (previous == null) {
+      current.remove();
+    } else {
+      current.set(previous);
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<ConcurrentCache, ConcurrentMap> attributesUpdater =
+      AtomicReferenceFieldUpdater.newUpdater(ConcurrentCache.class, ConcurrentMap.class, "attributes");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<ConcurrentCache, ConcurrentMap> computingUpdater =
+      AtomicReferenceFieldUpdater.newUpdater(ConcurrentCache.class, ConcurrentMap.class, "computing");
+
+  /**
+   * The map used to store attributes, allocated when first needed.
+   */
+  private volatile ConcurrentMap<String, Object> attributes;
+
+  /**
+   * The attribute computations in progress, by key, allocated when first needed.
+   */
+  private volatile ConcurrentMap<String, Computing> computing;
 
   ConcurrentCache(SemanticCMS semanticCms) {
-    super(
-        semanticCms,
-        new ConcurrentHashMap<>(),
-        VERIFY_CACHE_PARENT_CHILD_RELATIONSHIPS ? new HashMap<>() : null,
-        VERIFY_CACHE_PARENT_CHILD_RELATIONSHIPS ? new HashMap<>() : null,
-        new ConcurrentHashMap<>()
-    );
-    concurrentAttributes = (ConcurrentMap<String, Object>) attributes;
+    super(semanticCms, new ConcurrentPageTable());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected ConcurrentMap<String, Object> getAttributes(boolean create) {
+    ConcurrentMap<String, Object> map = attributes;
+    if (map == null && create) {
+      map = new ConcurrentHashMap<>();
+      if (!attributesUpdater.compareAndSet(this, null, map)) {
+        map = attributes;
+      }
+    }
+    return map;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ConcurrentMap<String, Computing> getComputing() {
+    ConcurrentMap<String, Computing> map = computing;
+    if (map == null) {
+      map = new ConcurrentHashMap<>();
+      if (!computingUpdater.compareAndSet(this, null, map)) {
+        map = computing;
+      }
+    }
+    return map;
   }
 
   /**
@@ -71,6 +193,11 @@ class ConcurrentCache extends MapCache {
   /**
    * {@inheritDoc}
    *
+   * <p>Only one thread computes each attribute at a time, with other threads waiting for the computation in
+   * progress.  When the computation fails or gives {@code null}, a waiting thread computes the attribute itself.
+   * A thread that re-enters the computation of the same attribute, including a concurrent subrequest started from
+   * within the computation, computes it directly.</p>
+   *
    * @param  <Ex>  An arbitrary exception type that may be thrown
    */
   @Override
@@ -79,10 +206,60 @@ class ConcurrentCache extends MapCache {
       Class<V> clazz,
       CallableE<? extends V, Ex> callable
   ) throws Ex {
-    V attribute = getAttribute(key, clazz);
-    if (attribute == null) {
-      attribute = callable.call();
-      Object existing = concurrentAttributes.putIfAbsent(key, attribute);
+    while (true) {
+      V attribute = getAttribute(key, clazz);
+      if (attribute != null) {
+        return attribute;
+      }
+      ConcurrentMap<String, Computing> computing = getComputing();
+      Computing newComputing = new Computing();
+      Computing existing = computing.putIfAbsent(key, newComputing);
+      if (existing == null) {
+        // This thread computes the attribute
+        Computing previous = current.get();
+        current.set(newComputing);
+        try {
+          // Check again, since may have been added before this thread started computing
+          attribute = getAttribute(key, clazz);
+          if (attribute == null) {
+            attribute = putAttribute(key, clazz, computeAttribute(key, callable));
+          }
+          return attribute;
+        } finally {
+          restore(previous);
+          computing.remove(key, newComputing);
+          newComputing.done.countDown();
+        }
+      }
+      if (existing.isCurrent()) {
+        // Re-entrant computation of the same attribute, possibly from a task started within the computation
+        return putAttribute(key, clazz, computeAttribute(key, callable));
+      }
+      // Wait for the computation in progress
+      semanticCms.getInstrumentation().attributeWaits.increment();
+      boolean completed;
+      try {
+        completed = existing.done.await(MAX_ATTRIBUTE_WAIT_SECONDS, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        // Restore the interrupted status and compute independently
+        Thread.currentThread().interrupt();
+        completed = false;
+      }
+      if (!completed) {
+        return putAttribute(key, clazz, computeAttribute(key, callable));
+      }
+      // Loop to use the computed attribute, or to compute when the computation in progress failed
+    }
+  }
+
+  /**
+   * Adds a computed attribute, unless already added.
+   *
+   * @return  the attribute in the cache, or the provided attribute when {@code null}
+   */
+  private <V> V putAttribute(String key, Class<V> clazz, V attribute) {
+    if (attribute != null) {
+      Object existing = getAttributes(true).putIfAbsent(key, attribute);
       if (existing != null) {
         attribute = clazz.cast(existing);
       }
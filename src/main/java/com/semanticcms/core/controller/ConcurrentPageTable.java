@@ -0,0 +1,125 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A thread safe page table backed by a {@link ConcurrentHashMap} of entries, with slots set by compare-and-set.
+ */
+final class ConcurrentPageTable extends PageTable {
+
+  /**
+   * The cached captures of one page, with one slot per cacheable level.
+   */
+  private static final class Entry {
+
+    private static final AtomicReferenceFieldUpdater<Entry, Page> metaUpdater =
+        AtomicReferenceFieldUpdater.newUpdater(Entry.class, Page.class, "meta");
+
+    private static final AtomicReferenceFieldUpdater<Entry, Page> pageUpdater =
+        AtomicReferenceFieldUpdater.newUpdater(Entry.class, Page.class, "page");
+
+    private volatile Page meta;
+
+    private volatile Page page;
+
+    /**
+     * The navigation summary, computed when first needed.
+     */
+    private volatile PageNavigation navigation;
+  }
+
+  private final ConcurrentMap<PageRef, Entry> entries = new ConcurrentHashMap<>();
+
+  @Override
+  Page get(PageRef pageRef, CaptureLevel level) {
+    Entry entry = entries.get(pageRef);
+    if (entry == null) {
+      return null;
+    }
+    if (level == CaptureLevel.META) {
+      return entry.meta;
+    }
+    assert level == CaptureLevel.PAGE : "Body captures are not cached";
+    // Look for meta in place of page
+    Page result = entry.page;
+    return result != null ? result : entry.meta;
+  }
+
+  @Override
+  int putIfAbsent(PageRef pageRef, CaptureLevel level, Page page) {
+    Entry entry = entries.get(pageRef);
+    if (entry == null) {
+      Entry newEntry = new Entry();
+      entry = entries.putIfAbsent(pageRef, newEntry);
+      if (entry == null) {
+        entry = newEntry;
+      }
+    }
+    // Check if found in other level before setting this level, this is used to avoid verifying twice
+    AtomicReferenceFieldUpdater<Entry, Page> updater;
+    Page otherLevelResult;
+    if (level == CaptureLevel.PAGE) {
+      updater = Entry.pageUpdater;
+      otherLevelResult = entry.meta;
+    } else {
+      assert level == CaptureLevel.META : "Body captures are not cached";
+      updater = Entry.metaUpdater;
+      otherLevelResult = entry.page;
+    }
+    // In the race condition where both levels check null then are added concurrently, both will be ADDED_FIRST
+    // rather than neither.
+    if (updater.compareAndSet(entry, null, page)) {
+      return otherLevelResult == null ? ADDED_FIRST : ADDED;
+    } else {
+      return NOT_ADDED;
+    }
+  }
+
+  @Override
+  PageNavigation getNavigation(Page page, SemanticCMS semanticCms) {
+    Entry entry = entries.get(page.getPageRef());
+    if (entry == null || (entry.meta != page && entry.page != page)) {
+      return null;
+    }
+    PageNavigation navigation = entry.navigation;
+    if (navigation == null) {
+      // Concurrent threads may compute the same summary, with any one of them retained
+      navigation = PageNavigation.of(semanticCms, page);
+      entry.navigation = navigation;
+    }
+    return navigation;
+  }
+
+  @Override
+  void clear() {
+    entries.clear();
+  }
+}
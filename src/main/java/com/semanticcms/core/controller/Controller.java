@@ -480,8 +480,22 @@ public class Controller implements Filter {
     }
   }
 
+  /**
+   * Checks if a request that maps onto a published book is likely for a resource, in which case any existing resource
+   * is served without attempting to capture a page.  When no resource exists, the request continues to the renderer
+   * and page capture as usual, so a page with a resource-like path is still found.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation calls {@link SemanticCMS#isResourcePath(com.aoapps.net.Path)}</p>
+   */
+  protected boolean isPublishedBookResource(SemanticCMS semanticCms, Book publishedBook, Path publishedPath, HttpServletRequest request) {
+    return semanticCms.isResourcePath(publishedPath);
+  }
+
   /**
    * Called for HTTP requests that map onto a published book and are GET, HEAD, or OPTIONS method.
+   *
+   * @see  Controller#isPublishedBookResource(com.semanticcms.core.controller.SemanticCMS, com.semanticcms.core.controller.Book, com.aoapps.net.Path, jakarta.servlet.http.HttpServletRequest)
    */
   protected void doPublishedBookExpectedMethods(
       HttpServletRequest request,
@@ -492,6 +506,16 @@ public class Controller implements Filter {
       Book publishedBook,
       Path publishedPath
   ) throws IOException, ServletException {
+    if (
+        isPublishedBookResource(semanticCms, publishedBook, publishedPath, request)
+            && !isPublishedBookProtected(publishedBook, publishedPath, request)
+            && !semanticCms.getNotFoundCache().isNotFound(publishedBook.bookRef, publishedPath)
+            // Serve the resource directly, without resolving a renderer or attempting a capture
+            && doPublishedBookResource(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath) == null
+    ) {
+      semanticCms.getInstrumentation().resourceDirect.increment();
+      return;
+    }
     Tuple2<Renderer, Path> rendererAndPath = semanticCms.getRendererAndPath(publishedPath);
     if (rendererAndPath == null) {
       doPublishedBookNoRenderer(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath);
@@ -524,6 +548,13 @@ public class Controller implements Filter {
 
   /**
    * Called for HTTP requests that map onto a published book and the OPTIONS method.
+   *
+   * <p>Only the existence of the page is needed, so it is first looked for in the request cache, the
+   * {@link SharedCaptureCache}, and the {@link NotFoundCache}, and is only captured when not found in any of them.
+   * Both the {@link NotFoundCache} and its record of existing pages are disabled unless
+   * "{@code com.semanticcms.core.controller.SemanticCMS.notFoundCacheTtl}" is set, so with the default configuration
+   * an OPTIONS request still performs a full {@link CaptureLevel#PAGE} capture unless the page is already in the
+   * request cache or {@link SharedCaptureCache}.</p>
    */
   protected void doPublishedBookOptions(
       HttpServletRequest request,
@@ -536,18 +567,54 @@ public class Controller implements Filter {
       Renderer renderer,
       Path pagePath
   ) throws IOException, ServletException {
-    Page page = CapturePage.capturePage(
-        servletContext,
-        request,
-        response,
-        new PageRef(publishedBook.bookRef, pagePath),
-        CaptureLevel.PAGE
-    );
-    if (page == null) {
+    PageRef pageRef = new PageRef(publishedBook.bookRef, pagePath);
+    NotFoundCache notFoundCache = semanticCms.getNotFoundCache();
+    if (notFoundCache.isNotFound(publishedBook.bookRef, publishedPath)) {
       doPublishedBookOptionsNoPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, pagePath);
+    } else if (notFoundCache.isFound(pageRef)) {
+      // Only existence is known, without a page
+      semanticCms.getInstrumentation().foundCacheHits.increment();
+      doPublishedBookOptionsPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, pageRef);
     } else {
-      doPublishedBookOptionsPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, page);
+      Page page = findPage(request, response, semanticCms, pageRef);
+      if (page != null) {
+        doPublishedBookOptionsPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, page);
+      } else {
+        doPublishedBookOptionsNoPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, pagePath);
+      }
+    }
+  }
+
+  /**
+   * Finds a page in the request cache or {@link SharedCaptureCache}, capturing it when in neither.
+   *
+   * @return  The page or {@code null} when not found
+   */
+  private Page findPage(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      SemanticCMS semanticCms,
+      PageRef pageRef
+  ) throws IOException, ServletException {
+    Cache cache = CacheFilter.findCache(request);
+    if (cache != null) {
+      Page cached = cache.get(pageRef, CaptureLevel.PAGE);
+      if (cached != null) {
+        return Cache.found(cached);
+      }
+    }
+    SharedCaptureCache sharedCaptureCache = semanticCms.getSharedCaptureCache();
+    if (sharedCaptureCache.isEnabled()) {
+      SharedCaptureCache.Captured shared = sharedCaptureCache.get(pageRef, CaptureLevel.PAGE);
+      if (shared != null) {
+        return shared.page;
+      }
+    }
+    Page page = CapturePage.capturePage(servletContext, request, response, pageRef, CaptureLevel.PAGE);
+    if (page != null) {
+      semanticCms.getNotFoundCache().putFound(pageRef);
     }
+    return page;
   }
 
   /**
@@ -568,8 +635,18 @@ public class Controller implements Filter {
   }
 
   /**
-   * Called for HTTP requests that map onto a published book and the OPTIONS method with page found.
+   * Called for HTTP requests that map onto a published book and the OPTIONS method with page found, when the page
+   * has been found in a cache or captured.  Not called when existence is answered from the {@link NotFoundCache}
+   * without a page.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation calls {@link #doPublishedBookOptionsPageFound(jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, jakarta.servlet.FilterChain, com.semanticcms.core.controller.SemanticCMS, java.lang.String, com.semanticcms.core.controller.Book, com.aoapps.net.Path, com.semanticcms.core.renderer.Renderer, com.semanticcms.core.model.PageRef)}</p>
+   *
+   * @deprecated  The page is not available when its existence is answered from the {@link NotFoundCache}.
+   *              Override {@link #doPublishedBookOptionsPageFound(jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, jakarta.servlet.FilterChain, com.semanticcms.core.controller.SemanticCMS, java.lang.String, com.semanticcms.core.controller.Book, com.aoapps.net.Path, com.semanticcms.core.renderer.Renderer, com.semanticcms.core.model.PageRef)}
+   *              instead.
    */
+  @Deprecated
   protected void doPublishedBookOptionsPageFound(
       HttpServletRequest request,
       HttpServletResponse response,
@@ -580,12 +657,51 @@ public class Controller implements Filter {
       Path publishedPath,
       Renderer renderer,
       Page page
+  ) throws IOException, ServletException {
+    doPublishedBookOptionsPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, page.getPageRef());
+  }
+
+  /**
+   * Called for HTTP requests that map onto a published book and the OPTIONS method with page found.  Called directly
+   * when existence is answered from the {@link NotFoundCache}, otherwise called by the default implementation of the
+   * deprecated overload that is given the page.
+   */
+  protected void doPublishedBookOptionsPageFound(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain chain,
+      SemanticCMS semanticCms,
+      String servletPath,
+      Book publishedBook,
+      Path publishedPath,
+      Renderer renderer,
+      PageRef pageRef
   ) throws IOException, ServletException {
     doOptions(request, response);
   }
 
+  /**
+   * Gets the level to capture a page for the GET or HEAD methods.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation uses {@link Renderer#getCaptureLevel()}.  For the HEAD method, a renderer that
+   * implements {@link HeadRenderer} is asked for its {@link HeadRenderer#getHeadCaptureLevel()} instead, since only
+   * the renderer knows whether its headers depend on the page body.</p>
+   */
+  protected CaptureLevel getCaptureLevel(HttpServletRequest request, Renderer renderer) {
+    if (
+        renderer instanceof HeadRenderer
+            && HttpServletUtil.METHOD_HEAD.equalsIgnoreCase(request.getMethod())
+    ) {
+      return ((HeadRenderer) renderer).getHeadCaptureLevel();
+    }
+    return renderer.getCaptureLevel();
+  }
+
   /**
    * Called for HTTP requests that map onto a published book and the GET or HEAD methods.
+   *
+   * @see  Controller#getCaptureLevel(jakarta.servlet.http.HttpServletRequest, com.semanticcms.core.renderer.Renderer)
    */
   protected void doPublishedBookGetHead(
       HttpServletRequest request,
@@ -598,16 +714,20 @@ public class Controller implements Filter {
       Renderer renderer,
       Path pagePath
   ) throws IOException, ServletException {
-    Page page = CapturePage.capturePage(
-        servletContext,
-        request,
-        response,
-        new PageRef(publishedBook.bookRef, pagePath),
-        renderer.getCaptureLevel()
-    );
+    Page page =
+        semanticCms.getNotFoundCache().isNotFound(publishedBook.bookRef, publishedPath)
+            ? null
+            : CapturePage.capturePage(
+                servletContext,
+                request,
+                response,
+                new PageRef(publishedBook.bookRef, pagePath),
+                getCaptureLevel(request, renderer)
+            );
     if (page == null) {
       doPublishedBookNoPageFound(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath);
     } else {
+      semanticCms.getNotFoundCache().putFound(page.getPageRef());
       doRenderer(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, renderer, page);
     }
   }
@@ -636,6 +756,13 @@ public class Controller implements Filter {
   /**
    * Called for HTTP requests that map onto a published book and are GET, HEAD, or OPTIONS method
    * but have no page found.
+   *
+   * <p>Paths with neither a page nor a resource are remembered in the {@link NotFoundCache}, when enabled, so repeated
+   * requests skip both the capture and the resource store.</p>
+   *
+   * <p>When the book has a {@link ResourceIndex}, paths not in the index are only searched for in the servlet context,
+   * without probing the resource directories, and OPTIONS requests for indexed paths are answered without opening
+   * the resource.</p>
    */
   protected void doPublishedBookNoPageFound(
       HttpServletRequest request,
@@ -649,31 +776,73 @@ public class Controller implements Filter {
     if (isPublishedBookProtected(publishedBook, publishedPath, request)) {
       doNotFound(request, response);
     } else {
-      ResourceStore store = publishedBook.getResources();
-      Resource resource = store.getResource(publishedPath);
-      ResourceConnection resourceConn = resource.open();
-      try {
-        if (!resourceConn.exists()) {
-          resourceConn.close();
-          resourceConn = null;
-          doPublishedBookResourceNotExists(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resource);
-        } else {
-          if (HttpServletUtil.METHOD_OPTIONS.equalsIgnoreCase(request.getMethod())) {
-            resourceConn.close();
-            resourceConn = null;
-            doPublishedBookResourceExistsOptions(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resource);
-          } else {
-            doPublishedBookResourceExistsGetHead(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resourceConn);
-          }
-        }
-      } finally {
-        if (resourceConn != null) {
-          resourceConn.close();
-        }
+      NotFoundCache notFoundCache = semanticCms.getNotFoundCache();
+      if (notFoundCache.isNotFound(publishedBook.bookRef, publishedPath)) {
+        semanticCms.getInstrumentation().notFoundCacheHits.increment();
+        doPublishedBookResourceNotExists(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, null);
+        return;
+      }
+      Resource resource = doPublishedBookResource(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath);
+      if (resource != null) {
+        notFoundCache.putNotFound(publishedBook.bookRef, publishedPath);
+        doPublishedBookResourceNotExists(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resource);
       }
     }
   }
 
+  /**
+   * Serves the resource for a published path when it exists.
+   *
+   * @return  The resource that does not exist, or {@code null} when the resource exists and the request has been
+   *          handled
+   */
+  private Resource doPublishedBookResource(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain chain,
+      SemanticCMS semanticCms,
+      String servletPath,
+      Book publishedBook,
+      Path publishedPath
+  ) throws IOException, ServletException {
+    ResourceIndex resourceIndex = semanticCms.getResourceIndex(publishedBook.bookRef);
+    boolean indexed = resourceIndex != null && resourceIndex.contains(publishedPath);
+    ResourceStore store =
+        (resourceIndex == null || indexed)
+            ? publishedBook.getResources()
+            // Not in any resource directory, only the servlet context remains to be searched
+            : resourceIndex.getFallback();
+    Resource resource = store.getResource(publishedPath);
+    if (indexed && HttpServletUtil.METHOD_OPTIONS.equalsIgnoreCase(request.getMethod())) {
+      doPublishedBookResourceExistsOptions(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resource);
+      return null;
+    }
+    ResourceConnection resourceConn = resource.open();
+    try {
+      if (!resourceConn.exists()) {
+        return resource;
+      }
+      if (HttpServletUtil.METHOD_OPTIONS.equalsIgnoreCase(request.getMethod())) {
+        resourceConn.close();
+        resourceConn = null;
+        doPublishedBookResourceExistsOptions(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resource);
+      } else {
+        doPublishedBookResourceExistsGetHead(request, response, chain, semanticCms, servletPath, publishedBook, publishedPath, resourceConn);
+      }
+      return null;
+    } finally {
+      if (resourceConn != null) {
+        resourceConn.close();
+      }
+    }
+  }
+
+  /**
+   * Called for HTTP requests that map onto a published book with neither a page nor a resource found.
+   *
+   * @param  resource  The resource that does not exist, or {@code null} when answered from the {@link NotFoundCache}
+   *                   without accessing the resource store
+   */
   protected void doPublishedBookResourceNotExists(
       HttpServletRequest request,
       HttpServletResponse response,
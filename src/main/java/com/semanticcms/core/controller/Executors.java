@@ -28,6 +28,7 @@ import com.aoapps.servlet.filter.FunctionContextRunnable;
 import com.semanticcms.core.pages.local.PageContextCallable;
 import com.semanticcms.core.pages.local.PageContextRunnable;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 /**
  * Per-context executors for concurrent processing.
@@ -36,7 +37,13 @@ import java.util.concurrent.Callable;
  *   <li>Internationalization context (via parent class): {@link com.aoapps.hodgepodge.i18n.I18nThreadLocalCallable} and {@link com.aoapps.hodgepodge.i18n.I18nThreadLocalRunnable}</li>
  *   <li>FunctionContext: {@link FunctionContextCallable} and {@link FunctionContextRunnable}</li>
  *   <li>PageContext: {@link PageContextCallable} and {@link PageContextRunnable}</li>
+ *   <li>The current span of any {@link CaptureTrace}</li>
+ *   <li>Whether within a capture coalesced by {@link CaptureCoalescer}</li>
  * </ul>
+ *
+ * <p>Capture tasks may be submitted with a {@link CapturePriority} via {@link #submit(com.semanticcms.core.controller.CapturePriority, java.util.concurrent.Callable)}.
+ * These share up to {@link #getPreferredConcurrency()} threads by weighted fair queuing, so interactive page views are
+ * not starved by large traversals.</p>
  */
 public class Executors extends com.aoapps.concurrent.Executors {
 
@@ -44,14 +51,48 @@ public class Executors extends com.aoapps.concurrent.Executors {
    * Should only be created by SemanticCMS to control life cycle.
    */
   Executors() {
-    // Do nothing
+    scheduler = new PriorityScheduler(this, Math.max(1, getPreferredConcurrency()));
+  }
+
+  private final PriorityScheduler scheduler;
+
+  /**
+   * Updated by {@link SemanticCMS#setMetrics(com.semanticcms.core.controller.CaptureMetrics)}.
+   */
+  void setInstrumentation(Instrumentation instrumentation) {
+    scheduler.setInstrumentation(instrumentation);
+  }
+
+  /**
+   * Submits a capture task, which will be run once its class is selected by weighted fair queuing
+   * and fewer than {@link #getPreferredConcurrency()} prioritized tasks are running.
+   *
+   * <p>The {@link ThreadLocal}-based context is captured from the current thread at submission time.</p>
+   */
+  public <T> Future<T> submit(CapturePriority priority, Callable<? extends T> task) {
+    Callable<T> callable = task::call;
+    return scheduler.submit(priority, wrap(callable));
+  }
+
+  /**
+   * Gets the number of tasks of the given class waiting to be run.
+   */
+  public int getQueueDepth(CapturePriority priority) {
+    return scheduler.getQueueDepth(priority);
+  }
+
+  /**
+   * Gets the number of prioritized tasks currently running.
+   */
+  public int getPrioritizedRunning() {
+    return scheduler.getRunning();
   }
 
   @Override
   protected <T> Callable<T> wrap(Callable<T> task) {
     return new PageContextCallable<>(
         new FunctionContextCallable<>(
-            super.wrap(task)
+            super.wrap(ConcurrentCache.wrap(CaptureCoalescer.wrap(CaptureTrace.wrap(task))))
         )
     );
   }
@@ -60,7 +101,7 @@ public class Executors extends com.aoapps.concurrent.Executors {
   protected Runnable wrap(Runnable task) {
     return new PageContextRunnable(
         new FunctionContextRunnable(
-            super.wrap(task)
+            super.wrap(ConcurrentCache.wrap(CaptureCoalescer.wrap(CaptureTrace.wrap(task))))
         )
     );
   }
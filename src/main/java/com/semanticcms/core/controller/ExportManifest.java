@@ -0,0 +1,331 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.Author;
+import com.semanticcms.core.model.ChildRef;
+import com.semanticcms.core.model.Copyright;
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.model.ParentRef;
+import com.semanticcms.core.model.ResourceRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import com.semanticcms.core.resources.ResourceConnection;
+import com.semanticcms.core.resources.ResourceStore;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The fingerprints of the inputs of each page rendered by {@link BookExporter}, stored in the output directory.
+ *
+ * <p>The fingerprint of a page covers:</p>
+ * <ul>
+ *   <li>The size and modification time of its own {@linkplain Book#getPageSource(com.semanticcms.core.model.PageRef) source}</li>
+ *   <li>The titles, authors, and copyright of all its ancestors, used for navigation, authors, and copyright</li>
+ *   <li>The titles of its children, used in menus</li>
+ *   <li>The authors, copyright, and title of its book</li>
+ * </ul>
+ *
+ * <p>The manifest also records a fingerprint of the inputs shared by all pages: the renderer and an optional
+ * caller-supplied version, such as the build version of the application.  When these differ from the previous export,
+ * all pages are considered changed.  Other shared inputs, such as themes, templates, and included fragments, are not
+ * fingerprinted, so a version must be supplied, or a full export performed, after any such change.</p>
+ *
+ * <p>A page without a known source is always considered changed.</p>
+ */
+final class ExportManifest {
+
+  static final String FILENAME = ".semanticcms-export-manifest";
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private static final char FIELD_SEPARATOR = '\0';
+
+  private static final String NULL = "\u0001";
+
+  /**
+   * The prefix of the line holding the fingerprint of the inputs shared by all pages.
+   */
+  private static final String GLOBAL_PREFIX = "# ";
+
+  /**
+   * Loads the manifest of a previous export.
+   *
+   * @param  renderer  The name of the renderer used for this export
+   * @param  version   The version of all other inputs shared by all pages or {@code null} when not known
+   *
+   * @return  The manifest, which is empty when there was no previous export
+   */
+  static ExportManifest load(Path outputDir, String renderer, String version) throws IOException {
+    Path file = outputDir.resolve(FILENAME);
+    StringBuilder globalInputs = new StringBuilder();
+    append(globalInputs, renderer);
+    append(globalInputs, version);
+    String global = digest(globalInputs);
+    String previousGlobal = null;
+    Map<String, String> previous = new HashMap<>();
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.startsWith(GLOBAL_PREFIX)) {
+          previousGlobal = line.substring(GLOBAL_PREFIX.length());
+          continue;
+        }
+        int space = line.indexOf(' ');
+        if (space != -1) {
+          previous.put(line.substring(space + 1), line.substring(0, space));
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // No previous export
+    }
+    return new ExportManifest(file, global, global.equals(previousGlobal), previous);
+  }
+
+  private final Path file;
+
+  private final String global;
+
+  /**
+   * When the inputs shared by all pages are unchanged, the fingerprints of the previous export may be used.
+   */
+  private final boolean globalUnchanged;
+
+  private final Map<String, String> previous;
+
+  private final ConcurrentMap<String, String> current = new ConcurrentHashMap<>();
+
+  private final Set<String> exported = ConcurrentHashMap.newKeySet();
+
+  private ExportManifest(Path file, String global, boolean globalUnchanged, Map<String, String> previous) {
+    this.file = file;
+    this.global = global;
+    this.globalUnchanged = globalUnchanged;
+    this.previous = previous;
+  }
+
+  /**
+   * Checks if a page has the same fingerprint as the previous export.
+   *
+   * @param  key  The path of the page, relative to the output directory
+   */
+  boolean isUnchanged(String key, String fingerprint) {
+    return globalUnchanged && fingerprint != null && fingerprint.equals(previous.get(key));
+  }
+
+  /**
+   * Records a page and its fingerprint in this export.
+   *
+   * @param  fingerprint  The fingerprint or {@code null} when unknown, which will not be recorded
+   */
+  void put(String key, String fingerprint) {
+    exported.add(key);
+    if (fingerprint != null) {
+      current.put(key, fingerprint);
+    }
+  }
+
+  /**
+   * Gets the pages of the previous export that have not been exported again.
+   */
+  List<String> getRemoved() {
+    List<String> removed = new ArrayList<>();
+    for (String key : previous.keySet()) {
+      if (!exported.contains(key)) {
+        removed.add(key);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Writes the fingerprints of this export, sorted by page, replacing the previous manifest atomically.
+   */
+  void save() throws IOException {
+    Path tmp = file.resolveSibling(FILENAME + ".tmp");
+    try {
+      try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        out.write(GLOBAL_PREFIX);
+        out.write(global);
+        out.write('\n');
+        for (Map.Entry<String, String> entry : new TreeMap<>(current).entrySet()) {
+          out.write(entry.getValue());
+          out.write(' ');
+          out.write(entry.getKey());
+          out.write('\n');
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Computes the fingerprint of the inputs of a page.
+   *
+   * @return  The fingerprint or {@code null} when the source of the page is not known
+   */
+  static String fingerprint(
+      ServletContext servletContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Book book,
+      Page page
+  ) throws ServletException, IOException {
+    StringBuilder inputs = new StringBuilder();
+    // Own source
+    ResourceRef source = book.getPageSource(page.getPageRef());
+    if (source == null) {
+      return null;
+    }
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+    ResourceStore sourceStore = semanticCms.getBook(source.getBookRef()).getResources();
+    try (ResourceConnection conn = sourceStore.getResource(source.getPath()).open()) {
+      if (!conn.exists()) {
+        return null;
+      }
+      append(inputs, source.getPath().toString());
+      append(inputs, Long.toString(conn.getLength()));
+      append(inputs, Long.toString(conn.getLastModified()));
+    }
+    // Book
+    append(inputs, book.getTitle());
+    appendAuthors(inputs, book.getAuthors());
+    appendCopyright(inputs, book.getCopyright());
+    // Ancestors, in breadth-first order
+    Set<PageRef> visited = new HashSet<>();
+    Queue<Page> queue = new ArrayDeque<>();
+    queue.add(page);
+    Page current;
+    while ((current = queue.poll()) != null) {
+      for (ParentRef parentRef : current.getParentRefs()) {
+        PageRef parentPageRef = parentRef.getPageRef();
+        if (visited.add(parentPageRef)) {
+          append(inputs, parentPageRef.toString());
+          if (semanticCms.getBook(parentPageRef.getBookRef()).isAccessible()) {
+            Page parent = CapturePage.capturePage(servletContext, request, response, parentPageRef, CaptureLevel.META);
+            if (parent != null) {
+              appendPage(inputs, parent);
+              queue.add(parent);
+            }
+          }
+        }
+      }
+    }
+    // Children
+    Set<PageRef> accessibleChildren = new HashSet<>();
+    for (ChildRef childRef : page.getChildRefs()) {
+      PageRef childPageRef = childRef.getPageRef();
+      if (semanticCms.getBook(childPageRef.getBookRef()).isAccessible()) {
+        accessibleChildren.add(childPageRef);
+      }
+    }
+    Map<PageRef, Page> children =
+        accessibleChildren.isEmpty()
+            ? Collections.emptyMap()
+            : CapturePage.capturePages(servletContext, request, response, accessibleChildren, CaptureLevel.META);
+    for (ChildRef childRef : page.getChildRefs()) {
+      PageRef childPageRef = childRef.getPageRef();
+      append(inputs, childPageRef.toString());
+      Page child = children.get(childPageRef);
+      if (child != null) {
+        append(inputs, child.getTitle());
+        append(inputs, child.getShortTitle());
+      }
+    }
+    return digest(inputs);
+  }
+
+  private static void appendPage(StringBuilder inputs, Page page) {
+    append(inputs, page.getTitle());
+    append(inputs, page.getShortTitle());
+    appendAuthors(inputs, page.getAuthors());
+    appendCopyright(inputs, page.getCopyright());
+  }
+
+  private static void appendAuthors(StringBuilder inputs, Set<Author> authors) {
+    append(inputs, Integer.toString(authors.size()));
+    for (Author author : authors) {
+      append(inputs, author.getName());
+      append(inputs, author.getHref());
+      append(inputs, author.getDomain() == null ? null : author.getDomain().toString());
+      append(inputs, author.getBook() == null ? null : author.getBook().toString());
+      append(inputs, author.getPage() == null ? null : author.getPage().toString());
+    }
+  }
+
+  private static void appendCopyright(StringBuilder inputs, Copyright copyright) {
+    if (copyright == null) {
+      append(inputs, null);
+    } else {
+      append(inputs, copyright.getRightsHolder());
+      append(inputs, copyright.getRights());
+      append(inputs, copyright.getDateCopyrighted());
+    }
+  }
+
+  private static void append(StringBuilder inputs, String value) {
+    inputs.append(value == null ? NULL : value).append(FIELD_SEPARATOR);
+  }
+
+  private static String digest(CharSequence inputs) {
+    MessageDigest md;
+    try {
+      md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("All implementations are required to support " + DIGEST_ALGORITHM, e);
+    }
+    byte[] hash = md.digest(inputs.toString().getBytes(StandardCharsets.UTF_8));
+    StringBuilder hex = new StringBuilder(hash.length * 2);
+    for (byte b : hash) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.pages.CaptureLevel;
+import com.semanticcms.core.renderer.Renderer;
+
+/**
+ * Implemented by a {@link Renderer} that can set the headers of a HEAD request from a page captured at a lower level
+ * than {@link Renderer#getCaptureLevel()}, such as when its content type and length do not depend on the page body.
+ *
+ * @see  Controller#getCaptureLevel(jakarta.servlet.http.HttpServletRequest, com.semanticcms.core.renderer.Renderer)
+ */
+public interface HeadRenderer {
+
+  /**
+   * Gets the level to capture a page for the HEAD method.
+   *
+   * @return  The level, not higher than {@link Renderer#getCaptureLevel()}
+   */
+  CaptureLevel getHeadCaptureLevel();
+}
@@ -0,0 +1,147 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.pages.CaptureLevel;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The counters and histograms of the capture pipeline, resolved once from the currently registered
+ * {@link CaptureMetrics}.
+ *
+ * @see  SemanticCMS#getInstrumentation()
+ */
+final class Instrumentation {
+
+  private static final CaptureLevel[] levels = CaptureLevel.values();
+
+  /**
+   * The maximum number of distinct cache attribute keys timed separately.
+   */
+  private static final int MAX_ATTRIBUTE_KEYS = 256;
+
+  private static final String ATTRIBUTE_TIME_PREFIX = "semanticcms.attribute.time.";
+
+  private static final String ATTRIBUTE_TIME_OTHER = "other";
+
+  private static final CapturePriority[] priorities = CapturePriority.values();
+
+  private static String suffix(Enum<?> e) {
+    return e.name().toLowerCase(Locale.ROOT);
+  }
+
+  private final CaptureMetrics.Counter[] cacheHits = new CaptureMetrics.Counter[levels.length];
+  private final CaptureMetrics.Counter[] cacheMisses = new CaptureMetrics.Counter[levels.length];
+  private final CaptureMetrics.Histogram[] captureTime = new CaptureMetrics.Histogram[levels.length];
+  final CaptureMetrics.Counter coalescedCaptures;
+  final CaptureMetrics.Counter sharedCacheHits;
+  final CaptureMetrics.Counter sharedCacheStale;
+  final CaptureMetrics.Counter sharedCacheMisses;
+  final CaptureMetrics.Histogram sharedCacheRevalidationTime;
+  final CaptureMetrics.Counter notFoundCacheHits;
+  final CaptureMetrics.Counter foundCacheHits;
+  final CaptureMetrics.Counter resourceDirect;
+  final CaptureMetrics.Histogram verifyCacheTime;
+  final CaptureMetrics.Histogram verifyFullTime;
+  final CaptureMetrics.Histogram traversalTime;
+  final CaptureMetrics.Histogram traversalFanOut;
+  final CaptureMetrics.Counter coordinatorConcurrent;
+  final CaptureMetrics.Counter coordinatorSequential;
+  final CaptureMetrics.Histogram coordinatorBudget;
+  final CaptureMetrics.Counter attributeWaits;
+  private final CaptureMetrics metrics;
+  private final ConcurrentMap<String, CaptureMetrics.Histogram> attributeTime = new ConcurrentHashMap<>();
+  private final CaptureMetrics.Histogram attributeTimeOther;
+  private final CaptureMetrics.Histogram[] queueDepth = new CaptureMetrics.Histogram[priorities.length];
+  private final CaptureMetrics.Histogram[] queueTime = new CaptureMetrics.Histogram[priorities.length];
+
+  Instrumentation(CaptureMetrics metrics) {
+    this.metrics = metrics;
+    for (CaptureLevel level : levels) {
+      int i = level.ordinal();
+      cacheHits[i] = metrics.getCounter("semanticcms.cache.hits." + suffix(level));
+      cacheMisses[i] = metrics.getCounter("semanticcms.cache.misses." + suffix(level));
+      captureTime[i] = metrics.getHistogram("semanticcms.capture.time." + suffix(level));
+    }
+    coalescedCaptures = metrics.getCounter("semanticcms.capture.coalesced");
+    attributeWaits = metrics.getCounter("semanticcms.attribute.waits");
+    attributeTimeOther = metrics.getHistogram(ATTRIBUTE_TIME_PREFIX + ATTRIBUTE_TIME_OTHER);
+    sharedCacheHits = metrics.getCounter("semanticcms.shared.hits");
+    sharedCacheStale = metrics.getCounter("semanticcms.shared.stale");
+    sharedCacheMisses = metrics.getCounter("semanticcms.shared.misses");
+    sharedCacheRevalidationTime = metrics.getHistogram("semanticcms.shared.revalidation.time");
+    notFoundCacheHits = metrics.getCounter("semanticcms.notfound.hits");
+    foundCacheHits = metrics.getCounter("semanticcms.found.hits");
+    resourceDirect = metrics.getCounter("semanticcms.resource.direct");
+    verifyCacheTime = metrics.getHistogram("semanticcms.verify.cache.time");
+    verifyFullTime = metrics.getHistogram("semanticcms.verify.full.time");
+    traversalTime = metrics.getHistogram("semanticcms.traversal.time");
+    traversalFanOut = metrics.getHistogram("semanticcms.traversal.fanout");
+    coordinatorConcurrent = metrics.getCounter("semanticcms.coordinator.concurrent");
+    coordinatorSequential = metrics.getCounter("semanticcms.coordinator.sequential");
+    coordinatorBudget = metrics.getHistogram("semanticcms.coordinator.budget");
+    for (CapturePriority priority : priorities) {
+      int i = priority.ordinal();
+      queueDepth[i] = metrics.getHistogram("semanticcms.executor.queue.depth." + suffix(priority));
+      queueTime[i] = metrics.getHistogram("semanticcms.executor.queue.time." + suffix(priority));
+    }
+  }
+
+  CaptureMetrics.Counter cacheHits(CaptureLevel level) {
+    return cacheHits[level.ordinal()];
+  }
+
+  CaptureMetrics.Counter cacheMisses(CaptureLevel level) {
+    return cacheMisses[level.ordinal()];
+  }
+
+  CaptureMetrics.Histogram captureTime(CaptureLevel level) {
+    return captureTime[level.ordinal()];
+  }
+
+  CaptureMetrics.Histogram queueDepth(CapturePriority priority) {
+    return queueDepth[priority.ordinal()];
+  }
+
+  CaptureMetrics.Histogram queueTime(CapturePriority priority) {
+    return queueTime[priority.ordinal()];
+  }
+
+  /**
+   * Gets the histogram of the time computing the given cache attribute.  Histograms are resolved by key as first
+   * used, up to {@link #MAX_ATTRIBUTE_KEYS} keys, after which all other keys share a single histogram.
+   */
+  CaptureMetrics.Histogram attributeTime(String key) {
+    CaptureMetrics.Histogram histogram = attributeTime.get(key);
+    if (histogram == null) {
+      if (attributeTime.size() >= MAX_ATTRIBUTE_KEYS) {
+        return attributeTimeOther;
+      }
+      histogram = attributeTime.computeIfAbsent(key, k -> metrics.getHistogram(ATTRIBUTE_TIME_PREFIX + k));
+    }
+    return histogram;
+  }
+}
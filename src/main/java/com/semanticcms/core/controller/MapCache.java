@@ -31,18 +31,25 @@ import com.semanticcms.core.model.ParentRef;
 import com.semanticcms.core.pages.CaptureLevel;
 import jakarta.servlet.ServletException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * A page cache implemented via a map.
+ *
+ * <p>All internal structures other than the {@link PageTable} are allocated when first needed, since many requests
+ * pass through {@link CacheFilter} without capturing any page.</p>
  */
 abstract class MapCache extends Cache {
 
   protected final SemanticCMS semanticCms;
 
-  private final Map<CaptureKey, CaptureResult> pageCache;
+  /**
+   * The cache of pages.  Keys are canonical instances from the {@link PageRefPool}, interned only when added.
+   */
+  private final PageTable pageCache;
 
   /**
    * Tracks which parent pages are still not verified.
@@ -50,8 +57,11 @@ abstract class MapCache extends Cache {
    *   <li>Key: The parent pageRef.</li>
    *   <li>Value: The page(s) that claim the pageRef as a parent but are still not verified.</li>
    * </ul>
+   *
+   * <p>Allocated when first needed.  Only accessed from {@link #verifyAdded(com.semanticcms.core.model.Page)},
+   * which is synchronized by thread safe implementations.</p>
    */
-  private final Map<PageRef, Set<PageRef>> unverifiedParentsByPageRef;
+  private Map<PageRef, Set<PageRef>> unverifiedParentsByPageRef;
 
   /**
    * Tracks which child pages are still not verified.
@@ -59,39 +69,71 @@ abstract class MapCache extends Cache {
    *   <li>Key: The child pageRef.</li>
    *   <li>Value: The page(s) that claim the pageRef as a child but are still not verified.</li>
    * </ul>
+   *
+   * <p>Allocated when first needed.  Only accessed from {@link #verifyAdded(com.semanticcms.core.model.Page)},
+   * which is synchronized by thread safe implementations.</p>
    */
-  private final Map<PageRef, Set<PageRef>> unverifiedChildrenByPageRef;
+  private Map<PageRef, Set<PageRef>> unverifiedChildrenByPageRef;
 
-  /**
-   * The map used to store attributes.
-   */
-  protected final Map<String, Object> attributes;
-
-  MapCache(
-      SemanticCMS semanticCms,
-      Map<CaptureKey, CaptureResult> pageCache,
-      Map<PageRef, Set<PageRef>> unverifiedParentsByPageRef,
-      Map<PageRef, Set<PageRef>> unverifiedChildrenByPageRef,
-      Map<String, Object> attributes
-  ) {
+  MapCache(SemanticCMS semanticCms, PageTable pageCache) {
     this.semanticCms = semanticCms;
     this.pageCache = pageCache;
-    this.unverifiedParentsByPageRef = unverifiedParentsByPageRef;
-    this.unverifiedChildrenByPageRef = unverifiedChildrenByPageRef;
-    this.attributes = attributes;
   }
 
-  @Override
-  CaptureResult get(CaptureKey key) {
-    CaptureResult result = pageCache.get(key);
-    if (result == null && key.level == CaptureLevel.PAGE) {
-      // Look for meta in place of page
-      result = pageCache.get(new CaptureKey(key.pageRef, CaptureLevel.META));
+  /**
+   * Gets the map used to store attributes, which is allocated when first needed.
+   *
+   * @param  create  Allocates the map when not yet allocated
+   *
+   * @return  The map or {@code null} when not yet allocated and not {@code create}
+   */
+  protected abstract Map<String, Object> getAttributes(boolean create);
+
+  /**
+   * Clears all pages, verification state, and attributes.  Used to recycle a cache for another request.
+   */
+  void clear() {
+    pageCache.clear();
+    unverifiedParentsByPageRef = null;
+    unverifiedChildrenByPageRef = null;
+    Map<String, Object> attributes = getAttributes(false);
+    if (attributes != null) {
+      attributes.clear();
     }
+  }
+
+  @Override
+  Page get(PageRef pageRef, CaptureLevel level) {
+    Page result = lookup(pageRef, level);
+    Instrumentation instrumentation = semanticCms.getInstrumentation();
+    (result != null ? instrumentation.cacheHits(level) : instrumentation.cacheMisses(level)).increment();
     return result;
   }
 
-  private static void addToSet(Map<PageRef, Set<PageRef>> map, PageRef key, PageRef pageRef) {
+  /**
+   * Looks up a page without recording cache hits or misses, used for internal verification lookups.
+   */
+  private Page lookup(PageRef pageRef, CaptureLevel level) {
+    return pageCache.get(pageRef, level);
+  }
+
+  @Override
+  PageNavigation getNavigation(Page page) {
+    // null for a different instance, such as a body capture
+    return pageCache.getNavigation(page, semanticCms);
+  }
+
+  /**
+   * Adds to one of the maps of unverified pages.
+   *
+   * @param  map  The map or {@code null} when not yet allocated
+   *
+   * @return  The map, allocated when needed
+   */
+  private static Map<PageRef, Set<PageRef>> addToSet(Map<PageRef, Set<PageRef>> map, PageRef key, PageRef pageRef) {
+    if (map == null) {
+      map = new HashMap<>();
+    }
     Set<PageRef> pageRefs = map.get(key);
     if (pageRefs == null) {
       map.put(key, Collections.singleton(pageRef));
@@ -102,22 +144,23 @@ abstract class MapCache extends Cache {
     } else {
       pageRefs.add(pageRef);
     }
+    return map;
   }
 
   @Override
-  void put(CaptureKey key, Page page) throws ServletException {
-    // Check if found in other level, this is used to avoid verifying twice
-    CaptureResult otherLevelResult = page == null ? null : pageCache.get(
-        new CaptureKey(key.pageRef, key.level == CaptureLevel.PAGE ? CaptureLevel.META : CaptureLevel.PAGE)
-    );
+  void put(PageRef pageRef, CaptureLevel level, Page page) throws ServletException {
     // Add to cache, verify if this page not yet put into cache
-    if (pageCache.put(key, CaptureResult.of(page)) == null) {
+    int added = pageCache.putIfAbsent(semanticCms.getPageRefPool().intern(pageRef), level, page == null ? NOT_FOUND : page);
+    if (added != PageTable.NOT_ADDED) {
+      boolean first = added == PageTable.ADDED_FIRST;
       // Was added, now avoid verifying twice typically.
       // In the race condition where both levels check null then are added concurrently, this will verify twice
       // rather than verify none.
       if (VERIFY_CACHE_PARENT_CHILD_RELATIONSHIPS) {
-        if (otherLevelResult == null) {
+        if (first && page != null) {
+          long startTime = System.nanoTime();
           verifyAdded(page);
+          semanticCms.getInstrumentation().verifyCacheTime.record(System.nanoTime() - startTime);
         }
       }
     }
@@ -136,11 +179,11 @@ abstract class MapCache extends Cache {
         // Can't verify parent reference to missing book
         if (semanticCms.getBook(parentPageRef.getBookRef()).isAccessible()) {
           // Check if parent in cache
-          CaptureResult parentResult = get(parentPageRef, CaptureLevel.PAGE);
-          if (parentResult != null && parentResult.page != null) {
-            PageUtils.verifyChildToParent(pageRef, parentPageRef, parentResult.page.getChildRefs());
+          Page parentPage = found(lookup(parentPageRef, CaptureLevel.PAGE));
+          if (parentPage != null) {
+            PageUtils.verifyChildToParent(pageRef, parentPageRef, parentPage.getChildRefs());
           } else {
-            addToSet(unverifiedParentsByPageRef, parentPageRef, pageRef);
+            unverifiedParentsByPageRef = addToSet(unverifiedParentsByPageRef, parentPageRef, pageRef);
           }
         }
       }
@@ -153,17 +196,17 @@ abstract class MapCache extends Cache {
         // Can't verify child reference to missing book
         if (semanticCms.getBook(childPageRef.getBookRef()).isAccessible()) {
           // Check if child in cache
-          CaptureResult childResult = get(childPageRef, CaptureLevel.PAGE);
-          if (childResult != null && childResult.page != null) {
-            PageUtils.verifyParentToChild(pageRef, childPageRef, childResult.page.getParentRefs());
+          Page childPage = found(lookup(childPageRef, CaptureLevel.PAGE));
+          if (childPage != null) {
+            PageUtils.verifyParentToChild(pageRef, childPageRef, childPage.getParentRefs());
           } else {
-            addToSet(unverifiedChildrenByPageRef, childPageRef, pageRef);
+            unverifiedChildrenByPageRef = addToSet(unverifiedChildrenByPageRef, childPageRef, pageRef);
           }
         }
       }
     }
     // Verify any pages that have claimed this page as their parent and are not yet verified
-    Set<PageRef> unverifiedParents = unverifiedParentsByPageRef.remove(pageRef);
+    Set<PageRef> unverifiedParents = unverifiedParentsByPageRef == null ? null : unverifiedParentsByPageRef.remove(pageRef);
     if (unverifiedParents != null) {
       if (childRefs == null) {
         childRefs = page.getChildRefs();
@@ -173,7 +216,7 @@ abstract class MapCache extends Cache {
       }
     }
     // Verify any pages that have claimed this page as their child and are not yet verified
-    Set<PageRef> unverifiedChildren = unverifiedChildrenByPageRef.remove(pageRef);
+    Set<PageRef> unverifiedChildren = unverifiedChildrenByPageRef == null ? null : unverifiedChildrenByPageRef.remove(pageRef);
     if (unverifiedChildren != null) {
       if (parentRefs == null) {
         parentRefs = page.getParentRefs();
@@ -187,15 +230,16 @@ abstract class MapCache extends Cache {
   @Override
   public void setAttribute(String key, Object value) {
     if (value == null) {
-      attributes.remove(key);
+      removeAttribute(key);
     } else {
-      attributes.put(key, value);
+      getAttributes(true).put(key, value);
     }
   }
 
   @Override
   public Object getAttribute(String key) {
-    return attributes.get(key);
+    Map<String, Object> attributes = getAttributes(false);
+    return attributes == null ? null : attributes.get(key);
   }
 
   /**
@@ -211,14 +255,29 @@ abstract class MapCache extends Cache {
   ) throws Ex {
     V attribute = getAttribute(key, clazz);
     if (attribute == null) {
-      attribute = callable.call();
+      attribute = computeAttribute(key, callable);
       setAttribute(key, attribute);
     }
     return attribute;
   }
 
+  /**
+   * Calls the callable for an attribute, recording its time by key.
+   */
+  protected <V, Ex extends Throwable> V computeAttribute(String key, CallableE<? extends V, Ex> callable) throws Ex {
+    long startTime = System.nanoTime();
+    try {
+      return callable.call();
+    } finally {
+      semanticCms.getInstrumentation().attributeTime(key).record(System.nanoTime() - startTime);
+    }
+  }
+
   @Override
   public void removeAttribute(String key) {
-    attributes.remove(key);
+    Map<String, Object> attributes = getAttributes(false);
+    if (attributes != null) {
+      attributes.remove(key);
+    }
   }
 }
@@ -0,0 +1,227 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.net.Path;
+import com.semanticcms.core.model.BookRef;
+import com.semanticcms.core.model.PageRef;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An application-wide negative cache of the published paths that have neither a page nor a resource, so that
+ * repeated requests for missing paths are answered without any capture or resource store access.
+ *
+ * <p>Also remembers the pages known to exist, with the same TTL, so OPTIONS requests are answered without a capture.
+ * When {@link BookChangeMonitor} is enabled, a page is removed when its source changes.  This shares the TTL of the
+ * negative cache, so while the cache is disabled, OPTIONS requests capture any page not already in another cache.</p>
+ *
+ * <p>Entries expire after a short TTL.  When {@link BookChangeMonitor} is enabled, the entries of a book are also
+ * removed when any file is created in the book's resource directories.  The number of entries is bounded, beyond
+ * which new missing paths are not cached until existing entries expire.</p>
+ *
+ * <p>Disabled by default, enabled by setting the context init parameter
+ * "{@code com.semanticcms.core.controller.SemanticCMS.notFoundCacheTtl}" to a positive number of milliseconds.</p>
+ *
+ * @see  SemanticCMS#getNotFoundCache()
+ * @see  Controller#doPublishedBookNoPageFound(jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse, jakarta.servlet.FilterChain, com.semanticcms.core.controller.SemanticCMS, java.lang.String, com.semanticcms.core.controller.Book, com.aoapps.net.Path)
+ */
+final class NotFoundCache {
+
+  /**
+   * The maximum number of missing paths cached.
+   */
+  private static final int MAX_SIZE = 10000;
+
+  /**
+   * The minimum time between scans for expired entries once full, so a full cache of unexpired entries does not scan
+   * all entries on every put.
+   */
+  private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private static final class Key {
+
+    private final BookRef bookRef;
+    private final Path path;
+
+    private Key(BookRef bookRef, Path path) {
+      this.bookRef = bookRef;
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return bookRef.equals(other.bookRef) && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return bookRef.hashCode() * 31 + path.hashCode();
+    }
+  }
+
+  private final long ttlNanos;
+
+  /**
+   * The {@link System#nanoTime()} each missing path expires.
+   */
+  private final ConcurrentMap<Key, Long> expires = new ConcurrentHashMap<>();
+
+  /**
+   * The {@link System#nanoTime()} a full {@link #expires} may next be scanned.
+   */
+  private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+  /**
+   * The {@link System#nanoTime()} each page known to exist expires.
+   */
+  private final ConcurrentMap<PageRef, Long> foundExpires = new ConcurrentHashMap<>();
+
+  /**
+   * The {@link System#nanoTime()} a full {@link #foundExpires} may next be scanned.
+   */
+  private final AtomicLong nextFoundSweep = new AtomicLong(System.nanoTime());
+
+  /**
+   * @param  ttl  the TTL in milliseconds or {@code 0} to disable
+   */
+  NotFoundCache(long ttl) {
+    if (ttl < 0) {
+      throw new IllegalArgumentException("ttl < 0: " + ttl);
+    }
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+  }
+
+  /**
+   * Checks if the not found cache is enabled.
+   */
+  boolean isEnabled() {
+    return ttlNanos != 0;
+  }
+
+  /**
+   * Checks if a published path is known to have neither a page nor a resource.
+   */
+  boolean isNotFound(BookRef bookRef, Path path) {
+    if (ttlNanos == 0) {
+      return false;
+    }
+    Key key = new Key(bookRef, path);
+    Long expire = expires.get(key);
+    if (expire == null) {
+      return false;
+    }
+    if (System.nanoTime() - expire >= 0) {
+      expires.remove(key, expire);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Records a published path that has neither a page nor a resource.
+   */
+  void putNotFound(BookRef bookRef, Path path) {
+    if (ttlNanos != 0) {
+      long now = System.nanoTime();
+      if (hasRoom(expires, nextSweep, now)) {
+        expires.put(new Key(bookRef, path), now + ttlNanos);
+      }
+    }
+  }
+
+  /**
+   * Checks if a page is known to exist.
+   */
+  boolean isFound(PageRef pageRef) {
+    if (ttlNanos == 0) {
+      return false;
+    }
+    Long expire = foundExpires.get(pageRef);
+    if (expire == null) {
+      return false;
+    }
+    if (System.nanoTime() - expire >= 0) {
+      foundExpires.remove(pageRef, expire);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Records a page that exists.
+   */
+  void putFound(PageRef pageRef) {
+    if (ttlNanos != 0) {
+      long now = System.nanoTime();
+      if (hasRoom(foundExpires, nextFoundSweep, now)) {
+        foundExpires.put(pageRef, now + ttlNanos);
+      }
+    }
+  }
+
+  /**
+   * Checks if a map has room for another entry.  When full, expired entries are removed by at most one thread per
+   * {@link #SWEEP_INTERVAL_NANOS}, and other puts are rejected without scanning.
+   */
+  private static boolean hasRoom(ConcurrentMap<?, Long> map, AtomicLong nextSweep, long now) {
+    if (map.size() < MAX_SIZE) {
+      return true;
+    }
+    long next = nextSweep.get();
+    if (now - next >= 0 && nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+      map.values().removeIf(expire -> now - expire >= 0);
+      return map.size() < MAX_SIZE;
+    }
+    return false;
+  }
+
+  /**
+   * Removes all missing paths of a book, such as when a file has been created.
+   */
+  void invalidate(BookRef bookRef) {
+    expires.keySet().removeIf(key -> key.bookRef.equals(bookRef));
+  }
+
+  /**
+   * Removes a page known to exist, such as when its source has changed and it may have been removed.
+   */
+  void invalidate(PageRef pageRef) {
+    foundExpires.remove(pageRef);
+  }
+
+  /**
+   * Removes all missing paths and pages known to exist.
+   */
+  void clear() {
+    expires.clear();
+    foundExpires.clear();
+  }
+}
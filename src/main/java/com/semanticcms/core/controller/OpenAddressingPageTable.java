@@ -0,0 +1,219 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import java.util.Arrays;
+
+/**
+ * A page table that is not thread safe, implemented as an open-addressing hash table with linear probing.
+ *
+ * <p>Each page occupies {@link #STRIDE} consecutive elements of a single array: the key followed by its META slot,
+ * PAGE slot, and navigation summary.  The slots hold the captured pages directly, or {@link Cache#NOT_FOUND}.
+ * This avoids any per-page node, entry, or result objects, which matters since a table is created and discarded
+ * for every request.  Pages are never removed, so no tombstones are needed.</p>
+ */
+final class OpenAddressingPageTable extends PageTable {
+
+  private static final int STRIDE = 4;
+  private static final int META = 1;
+  private static final int PAGE = 2;
+  private static final int NAVIGATION = 3;
+
+  /**
+   * The initial number of page positions, a power of two.
+   */
+  private static final int INITIAL_CAPACITY = 32;
+
+  /**
+   * The table is resized when more than this fraction of page positions are used.
+   */
+  private static final int MAX_LOAD_SHIFT = 1; // One half
+
+  /**
+   * The number of page positions, always a power of two.
+   */
+  private int capacity;
+
+  /**
+   * The right shift that selects the position from the high bits of a hash, {@code 32 - log2(capacity)}.
+   */
+  private int shift;
+
+  /**
+   * The table, allocated when the first page is added.
+   */
+  private Object[] table;
+
+  private int size;
+
+  /**
+   * Selects the position of a key by Fibonacci hashing, which takes the high bits of the product since they depend
+   * on all bits of the hash code.
+   */
+  private static int position(PageRef pageRef, int shift) {
+    return (pageRef.hashCode() * 0x9E3779B9) >>> shift;
+  }
+
+  private void allocate(int newCapacity) {
+    capacity = newCapacity;
+    shift = Integer.numberOfLeadingZeros(newCapacity) + 1;
+    table = new Object[newCapacity * STRIDE];
+  }
+
+  /**
+   * Finds the array index of the key of a page.
+   *
+   * @return  The index of the key, or the negative of one plus the index of the empty position where the key would
+   *          be added
+   */
+  private int indexOf(PageRef pageRef) {
+    Object[] t = table;
+    assert t != null;
+    int mask = capacity - 1;
+    int pos = position(pageRef, shift);
+    while (true) {
+      int index = pos * STRIDE;
+      Object key = t[index];
+      if (key == null) {
+        return -(index + 1);
+      }
+      // Keys are typically canonical instances from the PageRefPool, so check identity first
+      if (key == pageRef || key.equals(pageRef)) {
+        return index;
+      }
+      pos = (pos + 1) & mask;
+    }
+  }
+
+  private void resize() {
+    Object[] oldTable = table;
+    allocate(capacity * 2);
+    for (int oldIndex = 0; oldIndex < oldTable.length; oldIndex += STRIDE) {
+      PageRef key = (PageRef) oldTable[oldIndex];
+      if (key != null) {
+        int index = -(indexOf(key) + 1);
+        System.arraycopy(oldTable, oldIndex, table, index, STRIDE);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of pages.
+   */
+  int size() {
+    return size;
+  }
+
+  @Override
+  Page get(PageRef pageRef, CaptureLevel level) {
+    if (size == 0) {
+      return null;
+    }
+    int index = indexOf(pageRef);
+    if (index < 0) {
+      return null;
+    }
+    Object[] t = table;
+    if (level == CaptureLevel.META) {
+      return (Page) t[index + META];
+    }
+    assert level == CaptureLevel.PAGE : "Body captures are not cached";
+    // Look for meta in place of page
+    Page result = (Page) t[index + PAGE];
+    return result != null ? result : (Page) t[index + META];
+  }
+
+  @Override
+  int putIfAbsent(PageRef pageRef, CaptureLevel level, Page page) {
+    int slot;
+    int otherSlot;
+    if (level == CaptureLevel.PAGE) {
+      slot = PAGE;
+      otherSlot = META;
+    } else {
+      assert level == CaptureLevel.META : "Body captures are not cached";
+      slot = META;
+      otherSlot = PAGE;
+    }
+    if (table == null) {
+      allocate(INITIAL_CAPACITY);
+    }
+    int index = indexOf(pageRef);
+    if (index < 0) {
+      if ((size + 1) > (capacity >>> MAX_LOAD_SHIFT)) {
+        resize();
+        index = indexOf(pageRef);
+      }
+      index = -(index + 1);
+      table[index] = pageRef;
+      table[index + slot] = page;
+      size++;
+      return ADDED_FIRST;
+    }
+    Object[] t = table;
+    if (t[index + slot] != null) {
+      return NOT_ADDED;
+    }
+    t[index + slot] = page;
+    return t[index + otherSlot] == null ? ADDED_FIRST : ADDED;
+  }
+
+  @Override
+  PageNavigation getNavigation(Page page, SemanticCMS semanticCms) {
+    if (size == 0) {
+      return null;
+    }
+    int index = indexOf(page.getPageRef());
+    if (index < 0) {
+      return null;
+    }
+    Object[] t = table;
+    if (t[index + META] != page && t[index + PAGE] != page) {
+      return null;
+    }
+    PageNavigation navigation = (PageNavigation) t[index + NAVIGATION];
+    if (navigation == null) {
+      navigation = PageNavigation.of(semanticCms, page);
+      t[index + NAVIGATION] = navigation;
+    }
+    return navigation;
+  }
+
+  @Override
+  void clear() {
+    if (size != 0) {
+      if (capacity > INITIAL_CAPACITY) {
+        // Release a table grown by a large request
+        table = null;
+        capacity = 0;
+      } else {
+        Arrays.fill(table, null);
+      }
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.ChildRef;
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.ParentRef;
+import java.util.Set;
+
+/**
+ * A summary of the navigation of one page, with references to missing books already filtered out as done by
+ * {@link PageUtils#filterNotMissingBook(jakarta.servlet.ServletContext, java.util.Set)}.
+ *
+ * <p>The summary is computed when first requested for a page in the request cache and stored with the cached page,
+ * so that navigation and menus may avoid repeated per-child book lookups.</p>
+ *
+ * @see  PageUtils#getNavigation(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, com.semanticcms.core.model.Page)
+ */
+public final class PageNavigation {
+
+  /**
+   * Computes the navigation summary of a page.
+   */
+  static PageNavigation of(SemanticCMS semanticCms, Page page) {
+    return new PageNavigation(
+        PageUtils.filterNotMissingBook(semanticCms, page.getParentRefs()),
+        PageUtils.filterNotMissingBook(semanticCms, page.getChildRefs())
+    );
+  }
+
+  private final Set<ParentRef> parentRefs;
+  private final Set<ChildRef> childRefs;
+  private final ChildRef firstChild;
+
+  private PageNavigation(Set<ParentRef> parentRefs, Set<ChildRef> childRefs) {
+    this.parentRefs = parentRefs;
+    this.childRefs = childRefs;
+    this.firstChild = childRefs.isEmpty() ? null : childRefs.iterator().next();
+  }
+
+  /**
+   * Gets the parents in accessible books.
+   */
+  @SuppressWarnings("ReturnOfCollectionOrArrayField") // Returning unmodifiable
+  public Set<ParentRef> getParentRefs() {
+    return parentRefs;
+  }
+
+  /**
+   * Gets the children in accessible books.
+   */
+  @SuppressWarnings("ReturnOfCollectionOrArrayField") // Returning unmodifiable
+  public Set<ChildRef> getChildRefs() {
+    return childRefs;
+  }
+
+  /**
+   * Gets the number of children in accessible books.
+   */
+  public int getChildCount() {
+    return childRefs.size();
+  }
+
+  /**
+   * Checks if the page has any children in accessible books.
+   *
+   * @see  PageUtils#hasChild(jakarta.servlet.ServletContext, com.semanticcms.core.model.Page)
+   */
+  public boolean hasChild() {
+    return firstChild != null;
+  }
+
+  /**
+   * Gets the first child in an accessible book.
+   *
+   * @return  The first child or {@code null} when none
+   */
+  public ChildRef getFirstChild() {
+    return firstChild;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.PageRef;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An application-wide pool of canonical {@link PageRef PageRefs}.  Canonical instances allow equality checks to
+ * short-circuit on identity, and lookups of a page already in the pool allocate nothing.
+ *
+ * <p>Entries are weakly referenced and are removed once a page is no longer referenced elsewhere.  The values only
+ * weakly reference their keys, since any strong reference from value to key would prevent removal.</p>
+ *
+ * <p>The pool is divided into independently locked stripes by hash code, to limit contention between concurrent
+ * subrequests.</p>
+ *
+ * @see  SemanticCMS#getPageRefPool()
+ */
+final class PageRefPool {
+
+  /**
+   * The number of stripes, must be a power of two.
+   */
+  private static final int STRIPES = 32;
+
+  @SuppressWarnings("unchecked")
+  private final Map<PageRef, WeakReference<PageRef>>[] stripes = (Map<PageRef, WeakReference<PageRef>>[]) new Map<?, ?>[STRIPES];
+
+  PageRefPool() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new WeakHashMap<>();
+    }
+  }
+
+  private Map<PageRef, WeakReference<PageRef>> getStripe(PageRef pageRef) {
+    int h = pageRef.hashCode();
+    return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+  }
+
+  /**
+   * Gets the canonical instance of the given page.
+   *
+   * @return  The canonical instance, which is the given instance when not yet in the pool,
+   *          or {@code null} when {@code pageRef} is {@code null}
+   */
+  PageRef intern(PageRef pageRef) {
+    if (pageRef == null) {
+      return null;
+    }
+    Map<PageRef, WeakReference<PageRef>> stripe = getStripe(pageRef);
+    synchronized (stripe) {
+      WeakReference<PageRef> canonicalRef = stripe.get(pageRef);
+      PageRef canonical = canonicalRef == null ? null : canonicalRef.get();
+      if (canonical == null) {
+        // Not found or collected since lookup
+        stripe.put(pageRef, new WeakReference<>(pageRef));
+        canonical = pageRef;
+      }
+      return canonical;
+    }
+  }
+}
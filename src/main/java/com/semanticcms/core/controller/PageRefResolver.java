@@ -72,8 +72,16 @@ public final class PageRefResolver {
    */
   public static PageRef getCurrentPageRef(ServletContext servletContext, HttpServletRequest request, boolean requireBook) throws ServletException {
     String pagePath = Dispatcher.getCurrentPagePath(request);
+    ResolutionContext context = ResolutionContext.getInstance(request);
+    if (context != null) {
+      PageRef pageRef = context.getCurrentPageRef(pagePath);
+      if (pageRef != null) {
+        return pageRef;
+      }
+    }
     // TODO: get local book distinct from get published book, for local content that is not published
-    Book book = SemanticCMS.getInstance(servletContext).getPublishedBook(pagePath);
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+    Book book = ResolutionContext.getPublishedBook(context, semanticCms, pagePath);
     if (book == null) {
       if (requireBook) {
         throw new ServletException("Book not found for pagePath: " + pagePath);
@@ -84,14 +92,19 @@ public final class PageRefResolver {
     BookRef bookRef = book.getBookRef();
     String bookPrefix = bookRef.getPrefix();
     assert pagePath.startsWith(bookPrefix);
+    PageRef pageRef;
     try {
-      return new PageRef(
+      pageRef = new PageRef(
           bookRef,
           Path.valueOf(pagePath.substring(bookPrefix.length()))
       );
     } catch (ValidationException e) {
       throw new ServletException(e);
     }
+    if (context != null) {
+      context.putCurrentPageRef(pagePath, pageRef);
+    }
+    return pageRef;
   }
 
   /**
@@ -128,55 +141,86 @@ public final class PageRefResolver {
       if (domain != null && book == null) {
         throw new IllegalArgumentException("book is required when domain is provided.");
       }
-      SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
-      if (book == null) {
-        assert domain == null;
-        // When book not provided, path is relative to current page
-        String currentPagePath = Dispatcher.getCurrentPagePath(request);
+      // The current page is only used when either domain or book not provided
+      String currentPagePath = (domain == null || book == null) ? Dispatcher.getCurrentPagePath(request) : null;
+      ResolutionContext context = ResolutionContext.getInstance(request);
+      ResolutionContext.Key key;
+      if (context != null) {
+        key = new ResolutionContext.Key(currentPagePath, domain, book, path);
+        PageRef pageRef = context.getPageRef(key);
+        if (pageRef != null) {
+          return pageRef;
+        }
+      } else {
+        key = null;
+      }
+      PageRef pageRef = resolvePageRef(servletContext, context, currentPagePath, domain, book, path);
+      if (context != null) {
+        context.putPageRef(key, pageRef);
+      }
+      return pageRef;
+    } catch (ValidationException e) {
+      throw new ServletException(e);
+    }
+  }
+
+  /**
+   * Resolves a {@link PageRef} without memoization.
+   *
+   * @param  context  Optional, used to memoize the published book lookup
+   */
+  private static PageRef resolvePageRef(
+      ServletContext servletContext,
+      ResolutionContext context,
+      String currentPagePath,
+      DomainName domain,
+      Path book,
+      String path
+  ) throws ServletException, MalformedURLException, ValidationException {
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+    if (book == null) {
+      assert domain == null;
+      // When book not provided, path is relative to current page
+      // TODO: get local book distinct from get published book, for local content that is not published
+      Book currentBook = ResolutionContext.getPublishedBook(context, semanticCms, currentPagePath);
+      if (currentBook == null) {
+        throw new ServletException("book attribute required when not in a book's content: " + currentPagePath);
+      }
+      BookRef currentBookRef = currentBook.getBookRef();
+      String bookPrefix = currentBookRef.getPrefix();
+      assert currentPagePath.startsWith(bookPrefix);
+      return new PageRef(
+          currentBookRef,
+          Path.valueOf(
+              URIResolver.getAbsolutePath(
+                  currentPagePath.substring(bookPrefix.length()),
+                  path
+              )
+          )
+      );
+    } else {
+      if (!path.startsWith("/")) {
+        throw new ServletException("When book provided, path must begin with a slash (/): " + path);
+      }
+      // domain of current page when domain not provided
+      if (domain == null) {
         // TODO: get local book distinct from get published book, for local content that is not published
-        Book currentBook = semanticCms.getPublishedBook(currentPagePath);
+        Book currentBook = ResolutionContext.getPublishedBook(context, semanticCms, currentPagePath);
         if (currentBook == null) {
-          throw new ServletException("book attribute required when not in a book's content: " + currentPagePath);
+          throw new ServletException("domain attribute required when not in a book's content: " + currentPagePath);
         }
-        BookRef currentBookRef = currentBook.getBookRef();
-        String bookPrefix = currentBookRef.getPrefix();
-        assert currentPagePath.startsWith(bookPrefix);
+        domain = currentBook.getBookRef().getDomain();
+      }
+      BookRef bookRef = new BookRef(domain, book);
+      // Make sure book exists
+      try {
         return new PageRef(
-            currentBookRef,
-            Path.valueOf(
-                URIResolver.getAbsolutePath(
-                    currentPagePath.substring(bookPrefix.length()),
-                    path
-                )
-            )
+            semanticCms.getBook(bookRef).getBookRef(), // Use BookRef from Book, since it is a shared long-lived object
+            Path.valueOf(path)
         );
-      } else {
-        if (!path.startsWith("/")) {
-          throw new ServletException("When book provided, path must begin with a slash (/): " + path);
-        }
-        // domain of current page when domain not provided
-        if (domain == null) {
-          String currentPagePath = Dispatcher.getCurrentPagePath(request);
-          // TODO: get local book distinct from get published book, for local content that is not published
-          Book currentBook = semanticCms.getPublishedBook(currentPagePath);
-          if (currentBook == null) {
-            throw new ServletException("domain attribute required when not in a book's content: " + currentPagePath);
-          }
-          domain = currentBook.getBookRef().getDomain();
-        }
-        BookRef bookRef = new BookRef(domain, book);
-        // Make sure book exists
-        try {
-          return new PageRef(
-              semanticCms.getBook(bookRef).getBookRef(), // Use BookRef from Book, since it is a shared long-lived object
-              Path.valueOf(path)
-          );
-        } catch (NoSuchElementException e) {
-          throw new ServletException("Reference to missing book not allowed: " + bookRef, e);
-        }
+      } catch (NoSuchElementException e) {
+        throw new ServletException("Reference to missing book not allowed: " + bookRef, e);
       }
-    } catch (ValidationException e) {
-      throw new ServletException(e);
     }
   }
 
@@ -0,0 +1,82 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+
+/**
+ * The storage of the captured pages of a {@link MapCache}, with one slot per cacheable level per page, plus the
+ * {@link PageNavigation} of each page.  Each slot is set at most once, from {@code null} to either the captured
+ * page or {@link Cache#NOT_FOUND}.
+ */
+abstract class PageTable {
+
+  /**
+   * The result of {@link #putIfAbsent} when the slot was already set.
+   */
+  static final int NOT_ADDED = 0;
+
+  /**
+   * The result of {@link #putIfAbsent} when added while the other level was not yet set.
+   */
+  static final int ADDED_FIRST = 1;
+
+  /**
+   * The result of {@link #putIfAbsent} when added while the other level was already set.
+   */
+  static final int ADDED = 2;
+
+  /**
+   * Gets the best available capture of at least the given level.
+   * A lookup of level PAGE will also be satisfied by META.
+   *
+   * @return  The page, {@link Cache#NOT_FOUND}, or {@code null} when not cached
+   */
+  abstract Page get(PageRef pageRef, CaptureLevel level);
+
+  /**
+   * Sets the slot for the given level, only when not already set.
+   *
+   * @param  page  The page or {@link Cache#NOT_FOUND}
+   *
+   * @return  One of {@link #NOT_ADDED}, {@link #ADDED_FIRST}, or {@link #ADDED}
+   */
+  abstract int putIfAbsent(PageRef pageRef, CaptureLevel level, Page page);
+
+  /**
+   * Gets the navigation summary stored with a page.
+   *
+   * @param  page  The page, which must be the same instance as stored in either slot
+   *
+   * @return  The summary, computed when not yet stored, or {@code null} when the page is not stored
+   */
+  abstract PageNavigation getNavigation(Page page, SemanticCMS semanticCms);
+
+  /**
+   * Removes all pages.  May release storage beyond its initial size.
+   */
+  abstract void clear();
+}
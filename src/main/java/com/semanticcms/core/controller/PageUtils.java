@@ -57,6 +57,32 @@ public final class PageUtils {
     throw new AssertionError();
   }
 
+  /**
+   * Gets the navigation summary of a page, using the summary stored with the page in the request cache when
+   * available.
+   */
+  public static PageNavigation getNavigation(ServletContext servletContext, HttpServletRequest request, Page page) {
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+    Cache cache = CacheFilter.findCache(request);
+    if (cache != null) {
+      PageNavigation navigation = cache.getNavigation(page);
+      if (navigation != null) {
+        return navigation;
+      }
+    }
+    return PageNavigation.of(semanticCms, page);
+  }
+
+  /**
+   * Checks if a page has any children in accessible books, using the summary stored with the page in the request
+   * cache when available.
+   *
+   * @see  #getNavigation(jakarta.servlet.ServletContext, jakarta.servlet.http.HttpServletRequest, com.semanticcms.core.model.Page)
+   */
+  public static boolean hasChild(ServletContext servletContext, HttpServletRequest request, Page page) {
+    return getNavigation(servletContext, request, page).hasChild();
+  }
+
   public static boolean hasChild(ServletContext servletContext, Page page) {
     Set<ChildRef> childRefs = page.getChildRefs();
     if (!childRefs.isEmpty()) {
@@ -205,11 +231,21 @@ public final class PageUtils {
    * Filters for all pageRefs that are present (not missing books).
    */
   public static <R extends PageReferrer> Set<R> filterNotMissingBook(ServletContext servletContext, Set<R> pageReferrers) {
+    if (pageReferrers.isEmpty()) {
+      return Collections.emptySet();
+    } else {
+      return filterNotMissingBook(SemanticCMS.getInstance(servletContext), pageReferrers);
+    }
+  }
+
+  /**
+   * Filters for all pageRefs that are present (not missing books).
+   */
+  static <R extends PageReferrer> Set<R> filterNotMissingBook(SemanticCMS semanticCms, Set<R> pageReferrers) {
     int size = pageReferrers.size();
     if (size == 0) {
       return Collections.emptySet();
     } else {
-      SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
       if (size == 1) {
         R pageReferrer = pageReferrers.iterator().next();
         if (semanticCms.getBook(pageReferrer.getPageRef().getBookRef()).isAccessible()) {
@@ -344,7 +380,8 @@ public final class PageUtils {
           request,
           response,
           PageUtils.filterNotMissingBook(servletContext, page.getParentRefs()),
-          CaptureLevel.PAGE
+          CaptureLevel.PAGE,
+          CapturePriority.VERIFICATION
       );
       PageRef pageRef = page.getPageRef();
       for (Map.Entry<PageRef, Page> entry : notMissingParents.entrySet()) {
@@ -358,7 +395,8 @@ public final class PageUtils {
           request,
           response,
           PageUtils.filterNotMissingBook(servletContext, page.getChildRefs()),
-          CaptureLevel.PAGE
+          CaptureLevel.PAGE,
+          CapturePriority.VERIFICATION
       );
       PageRef pageRef = page.getPageRef();
       for (Map.Entry<PageRef, Page> entry : notMissingChildren.entrySet()) {
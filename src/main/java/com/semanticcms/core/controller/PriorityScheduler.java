@@ -0,0 +1,263 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Limits the number of capture tasks running at once and chooses the next task to run by weighted fair queuing
+ * between the {@link CapturePriority classes} of waiting tasks.
+ *
+ * <p>Each class has a virtual finish time that advances by the inverse of its weight for each task dispatched.
+ * The waiting class with the earliest virtual finish time runs next.  A class that has been idle joins at the
+ * current virtual time, so it can not build up credit while it has nothing to run.</p>
+ *
+ * <p>Tasks submitted from within a running scheduled task bypass the scheduler, since the submitting task is
+ * already holding a permit and will usually wait on the result.  Queueing these behind the permit limit could
+ * otherwise deadlock.  Bypassed tasks are themselves marked as scheduled, so their own nested submissions also
+ * bypass the scheduler.</p>
+ *
+ * @see  Executors#submit(com.semanticcms.core.controller.CapturePriority, java.util.concurrent.Callable)
+ */
+final class PriorityScheduler {
+
+  /**
+   * Set while running a task dispatched by any scheduler.
+   */
+  private static final ThreadLocal<Boolean> inScheduledTask = new ThreadLocal<>();
+
+  private static final CapturePriority[] priorities = CapturePriority.values();
+
+  private final class Task<T> extends FutureTask<T> {
+
+    private final ClassQueue classQueue;
+
+    private final long submitted = System.nanoTime();
+
+    private Task(ClassQueue classQueue, Callable<T> callable) {
+      super(callable);
+      this.classQueue = classQueue;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+        // Release the queue slot now instead of waiting for it to be skipped at dispatch
+        synchronized (lock) {
+          classQueue.tasks.remove(this);
+        }
+      }
+      return cancelled;
+    }
+
+    @Override
+    protected void setException(Throwable t) {
+      super.setException(t);
+    }
+  }
+
+  private static final class ClassQueue {
+
+    private final CapturePriority priority;
+
+    private final double virtualIncrement;
+
+    private final ArrayDeque<Task<?>> tasks = new ArrayDeque<>();
+
+    private double virtualFinish;
+
+    private ClassQueue(CapturePriority priority) {
+      this.priority = priority;
+      this.virtualIncrement = 1.0 / priority.getWeight();
+    }
+  }
+
+  private static class Lock {
+    // Empty lock class to help heap profile
+  }
+
+  private final Lock lock = new Lock();
+
+  private final Executors executors;
+
+  private final int permits;
+
+  private volatile Instrumentation instrumentation = new Instrumentation(CaptureMetrics.NONE);
+
+  /**
+   * One queue per priority, indexed by ordinal.  Only accessed while holding the lock.
+   */
+  private final ClassQueue[] classQueues = new ClassQueue[priorities.length];
+
+  /**
+   * The number of tasks currently dispatched.  Only accessed while holding the lock.
+   */
+  private int running;
+
+  /**
+   * The virtual finish time of the most recently dispatched task.  Only accessed while holding the lock.
+   */
+  private double virtualTime;
+
+  PriorityScheduler(Executors executors, int permits) {
+    if (permits < 1) {
+      throw new IllegalArgumentException("permits < 1: " + permits);
+    }
+    this.executors = executors;
+    this.permits = permits;
+    for (CapturePriority priority : priorities) {
+      classQueues[priority.ordinal()] = new ClassQueue(priority);
+    }
+  }
+
+  /**
+   * Checks if the current thread is running a task dispatched by any scheduler, which may be holding a permit.
+   */
+  static boolean isInScheduledTask() {
+    return inScheduledTask.get() != null;
+  }
+
+  /**
+   * Submits a task, which must already be wrapped for any {@link ThreadLocal} context of the submitting thread.
+   */
+  <T> Future<T> submit(CapturePriority priority, Callable<T> task) {
+    if (inScheduledTask.get() != null) {
+      return executors.getPerProcessor().submit(scheduled(task));
+    }
+    ClassQueue classQueue = classQueues[priority.ordinal()];
+    Task<T> future = new Task<>(classQueue, task);
+    int queueDepth;
+    synchronized (lock) {
+      queueDepth = classQueue.tasks.size();
+      if (queueDepth == 0) {
+        classQueue.virtualFinish = Math.max(classQueue.virtualFinish, virtualTime);
+      }
+      classQueue.tasks.add(future);
+    }
+    instrumentation.queueDepth(priority).record(queueDepth);
+    dispatch();
+    return future;
+  }
+
+  /**
+   * Dispatches waiting tasks until all permits are in use or no tasks remain.
+   */
+  private void dispatch() {
+    while (true) {
+      Task<?> next;
+      synchronized (lock) {
+        if (running >= permits) {
+          return;
+        }
+        ClassQueue selected = null;
+        for (ClassQueue classQueue : classQueues) {
+          if (
+              !classQueue.tasks.isEmpty()
+                  && (selected == null || classQueue.virtualFinish < selected.virtualFinish)
+          ) {
+            selected = classQueue;
+          }
+        }
+        if (selected == null) {
+          return;
+        }
+        next = selected.tasks.remove();
+        virtualTime = selected.virtualFinish;
+        selected.virtualFinish += selected.virtualIncrement;
+        running++;
+      }
+      // Concurrency is bounded by permits, so the unbounded executor avoids any nested executor handling
+      final Task<?> task = next;
+      try {
+        executors.getUnbounded().submit(() -> run(task));
+      } catch (RejectedExecutionException e) {
+        synchronized (lock) {
+          running--;
+        }
+        task.setException(e);
+      }
+    }
+  }
+
+  /**
+   * Marks a bypassed task as scheduled while it runs, so any tasks it submits also bypass the scheduler.
+   */
+  private static <T> Callable<T> scheduled(Callable<T> task) {
+    return () -> {
+      Boolean previous = inScheduledTask.get();
+      inScheduledTask.set(Boolean.TRUE);
+      try {
+        return task.call();
+      } finally {
+        if (previous == null) {
+          inScheduledTask.remove();
+        }
+      }
+    };
+  }
+
+  private void run(Task<?> task) {
+    instrumentation.queueTime(task.classQueue.priority).record(System.nanoTime() - task.submitted);
+    try {
+      inScheduledTask.set(Boolean.TRUE);
+      try {
+        task.run();
+      } finally {
+        inScheduledTask.remove();
+      }
+    } finally {
+      synchronized (lock) {
+        running--;
+      }
+      dispatch();
+    }
+  }
+
+  void setInstrumentation(Instrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
+
+  /**
+   * Gets the number of tasks waiting to be dispatched for the given class.
+   */
+  int getQueueDepth(CapturePriority priority) {
+    synchronized (lock) {
+      return classQueues[priority.ordinal()].tasks.size();
+    }
+  }
+
+  /**
+   * Gets the number of tasks currently dispatched to the executor.
+   */
+  int getRunning() {
+    synchronized (lock) {
+      return running;
+    }
+  }
+}
@@ -37,7 +37,9 @@ import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,6 +47,12 @@ import java.util.Map;
  * Calls {@link Renderer} via {@link Renderer#newPageRenderer(com.semanticcms.core.model.Page, java.util.Map)}
  * and {@link PageRenderer#doRenderer(java.io.Writer)}.
  * Also sets the attributes required by {@link ServletPageRenderer}.
+ *
+ * <p>HEAD requests only set the headers from the {@link PageRenderer}, without rendering the body.</p>
+ *
+ * <p>When writing the body fails, such as when the client has disconnected, the {@link CaptureDeadline} of the
+ * request is cancelled so any remaining capture work for the request is stopped.  The failure is only detected when
+ * the output is flushed, which is done at least once per response buffer size of output.</p>
  */
 @WebServlet(name = RendererServlet.NAME)
 public class RendererServlet extends HttpServlet {
@@ -118,10 +126,10 @@ public class RendererServlet extends HttpServlet {
     }
   }
 
-  @Override
-  protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-    PageRenderer pageRenderer = getPageRenderer(request);
-    // TODO: Doctype and Serialization stuff here, or somewhere appropriate before Theme.doTheme is called (like in 1.x branch PageImpl.java)
+  /**
+   * Sets the content type and, when known, the content length.
+   */
+  private static void setHeaders(PageRenderer pageRenderer, HttpServletResponse response) throws IOException {
     response.setContentType(pageRenderer.getContentType());
     long length = pageRenderer.getLength();
     if (length != -1) {
@@ -130,6 +138,100 @@ public class RendererServlet extends HttpServlet {
       }
       response.setContentLengthLong(length);
     }
-    pageRenderer.doRenderer(response.getWriter());
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+    PageRenderer pageRenderer = getPageRenderer(request);
+    // TODO: Doctype and Serialization stuff here, or somewhere appropriate before Theme.doTheme is called (like in 1.x branch PageImpl.java)
+    setHeaders(pageRenderer, response);
+    PrintWriter out = response.getWriter();
+    CaptureDeadline deadline = CaptureDeadline.getDeadline(request);
+    if (deadline == null) {
+      pageRenderer.doRenderer(out);
+    } else {
+      CancellingWriter cancellingOut = new CancellingWriter(out, response.getBufferSize(), deadline);
+      pageRenderer.doRenderer(cancellingOut);
+      cancellingOut.checkError();
+    }
+  }
+
+  /**
+   * Cancels the deadline of the request when writing the response has failed.  The writer of the response does not
+   * throw exceptions, so failures are only detected when flushed: on each {@link #flush()}, after each buffer size of
+   * output, and after rendering completes.
+   */
+  private static final class CancellingWriter extends FilterWriter {
+
+    /**
+     * The number of characters written between checks when the response buffer size is unknown.
+     */
+    private static final int DEFAULT_CHECK_INTERVAL = 8192;
+
+    private final PrintWriter printWriter;
+
+    private final int checkInterval;
+
+    private final CaptureDeadline deadline;
+
+    private long unchecked;
+
+    private CancellingWriter(PrintWriter out, int bufferSize, CaptureDeadline deadline) {
+      super(out);
+      this.printWriter = out;
+      this.checkInterval = bufferSize > 0 ? bufferSize : DEFAULT_CHECK_INTERVAL;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Flushes the response and checks for a failure, cancelling the deadline when failed.
+     */
+    private void checkError() throws IOException {
+      unchecked = 0;
+      // checkError also flushes
+      if (printWriter.checkError()) {
+        deadline.cancel();
+        throw new IOException("Unable to write response, client may have disconnected");
+      }
+    }
+
+    private void written(int len) throws IOException {
+      unchecked += len;
+      if (unchecked >= checkInterval) {
+        checkError();
+      }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+      out.write(c);
+      written(1);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      out.write(cbuf, off, len);
+      written(len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+      out.write(str, off, len);
+      written(len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      checkError();
+    }
+  }
+
+  /**
+   * Sets the same headers as {@link #doGet(jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse)}
+   * without rendering the body, instead of the default of rendering into a discarded body.
+   */
+  @Override
+  protected void doHead(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+    setHeaders(getPageRenderer(request), response);
   }
 }
@@ -0,0 +1,166 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.net.DomainName;
+import com.aoapps.net.Path;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.model.ResourceRef;
+import jakarta.servlet.ServletRequest;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Request-scoped memoization of {@link PageRefResolver} and {@link ResourceRefResolver}, so that pages with many links
+ * do not repeat the published book lookup and path resolution for every link.
+ *
+ * <p>This is stored as an attribute of the request {@link Cache}, and its maps are created by {@link Cache#newMap()},
+ * so it has the same thread safety as the cache.  Only successful resolutions are memoized.</p>
+ */
+final class ResolutionContext {
+
+  private static final String CACHE_ATTRIBUTE = ResolutionContext.class.getName();
+
+  /**
+   * Gets the resolution context for the given request.
+   *
+   * @return  The context or {@code null} when {@link CacheFilter} is not active on the request
+   */
+  static ResolutionContext getInstance(ServletRequest request) {
+    Cache cache = CacheFilter.findCache(request);
+    if (cache == null) {
+      return null;
+    }
+    return cache.getAttribute(CACHE_ATTRIBUTE, ResolutionContext.class, () -> new ResolutionContext(cache));
+  }
+
+  /**
+   * The inputs to a resolution.
+   */
+  static final class Key {
+
+    private final String currentPagePath;
+    private final DomainName domain;
+    private final Path book;
+    private final String path;
+
+    /**
+     * @param  currentPagePath  The current page path, or {@code null} when both domain and book are provided
+     *                          since the result does not depend on the current page
+     */
+    Key(String currentPagePath, DomainName domain, Path book, String path) {
+      this.currentPagePath = currentPagePath;
+      this.domain = domain;
+      this.book = book;
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return
+          path.equals(other.path)
+              && Objects.equals(currentPagePath, other.currentPagePath)
+              && Objects.equals(book, other.book)
+              && Objects.equals(domain, other.domain);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = path.hashCode();
+      hash = hash * 31 + Objects.hashCode(currentPagePath);
+      hash = hash * 31 + Objects.hashCode(book);
+      hash = hash * 31 + Objects.hashCode(domain);
+      return hash;
+    }
+  }
+
+  /**
+   * The published book by current page path, empty when the current page is not in a published book.
+   */
+  private final Map<String, Optional<Book>> publishedBooks;
+
+  /**
+   * The current page by current page path.
+   */
+  private final Map<String, PageRef> currentPageRefs;
+
+  private final Map<Key, PageRef> pageRefs;
+
+  private final Map<Key, ResourceRef> resourceRefs;
+
+  private ResolutionContext(Cache cache) {
+    this.publishedBooks = cache.newMap();
+    this.currentPageRefs = cache.newMap();
+    this.pageRefs = cache.newMap();
+    this.resourceRefs = cache.newMap();
+  }
+
+  /**
+   * Gets the published book for the given current page path.
+   *
+   * @param  context  Optional, {@code null} to look up directly
+   *
+   * @see  SemanticCMS#getPublishedBook(java.lang.String)
+   */
+  static Book getPublishedBook(ResolutionContext context, SemanticCMS semanticCms, String currentPagePath) {
+    if (context == null) {
+      return semanticCms.getPublishedBook(currentPagePath);
+    }
+    Optional<Book> book = context.publishedBooks.get(currentPagePath);
+    if (book == null) {
+      book = Optional.ofNullable(semanticCms.getPublishedBook(currentPagePath));
+      context.publishedBooks.put(currentPagePath, book);
+    }
+    return book.orElse(null);
+  }
+
+  PageRef getCurrentPageRef(String currentPagePath) {
+    return currentPageRefs.get(currentPagePath);
+  }
+
+  void putCurrentPageRef(String currentPagePath, PageRef pageRef) {
+    currentPageRefs.put(currentPagePath, pageRef);
+  }
+
+  PageRef getPageRef(Key key) {
+    return pageRefs.get(key);
+  }
+
+  void putPageRef(Key key, PageRef pageRef) {
+    pageRefs.put(key, pageRef);
+  }
+
+  ResourceRef getResourceRef(Key key) {
+    return resourceRefs.get(key);
+  }
+
+  void putResourceRef(Key key, ResourceRef resourceRef) {
+    resourceRefs.put(key, resourceRef);
+  }
+}
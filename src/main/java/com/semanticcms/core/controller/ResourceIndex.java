@@ -0,0 +1,160 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.aoapps.net.Path;
+import com.semanticcms.core.model.BookRef;
+import com.semanticcms.core.resources.ResourceStore;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory index of which files exist in the resource directories of a {@link ServletBook}.  This allows existence
+ * checks without probing each directory of the book's resource store.  Only existence is indexed; the resource itself
+ * is still opened from the store when served.
+ *
+ * <p>The index is authoritative for the resource directories only.  A path not in the index may still be a resource
+ * within the servlet context, which is searched after all directories, so is looked up in
+ * {@link #getFallback()}.</p>
+ *
+ * <p>The index is kept current by the {@link BookChangeMonitor}, and rebuilt when changes may have been missed.</p>
+ *
+ * @see  SemanticCMS#getResourceIndex(com.semanticcms.core.model.BookRef)
+ */
+final class ResourceIndex {
+
+  private static final Logger logger = Logger.getLogger(ResourceIndex.class.getName());
+
+  private final BookRef bookRef;
+
+  private final List<File> directories;
+
+  private final ResourceStore fallback;
+
+  /**
+   * The book-relative paths of the indexed files.  Replaced as a whole when rebuilt.
+   */
+  private volatile Set<String> paths;
+
+  ResourceIndex(BookRef bookRef, List<File> directories, ResourceStore fallback) {
+    this.bookRef = bookRef;
+    this.directories = directories;
+    this.fallback = fallback;
+    rebuild();
+  }
+
+  /**
+   * Gets the store searched for any path not in the index.
+   */
+  ResourceStore getFallback() {
+    return fallback;
+  }
+
+  /**
+   * Checks if a file exists in any resource directory for the given book-relative path.
+   */
+  boolean contains(Path path) {
+    return paths.contains(path.toString());
+  }
+
+  /**
+   * Scans all resource directories.
+   */
+  void rebuild() {
+    Set<String> newPaths = ConcurrentHashMap.newKeySet();
+    for (File directory : directories) {
+      java.nio.file.Path start = directory.toPath();
+      if (Files.isDirectory(start)) {
+        try {
+          // Follows links, since the resource store serves linked files
+          Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<java.nio.file.Path>() {
+            @Override
+            public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) {
+              if (attrs.isRegularFile()) {
+                newPaths.add(toPath(start, file));
+              }
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(java.nio.file.Path file, IOException e) {
+              logger.log(Level.FINE, "Unable to index resource: " + file, e);
+              return FileVisitResult.CONTINUE;
+            }
+          });
+        } catch (IOException e) {
+          logger.log(Level.WARNING, bookRef + ": Unable to index resource directory: " + start, e);
+        }
+      }
+    }
+    paths = newPaths;
+  }
+
+  private static String toPath(java.nio.file.Path start, java.nio.file.Path file) {
+    StringBuilder path = new StringBuilder();
+    for (java.nio.file.Path name : start.relativize(file)) {
+      path.append('/').append(name);
+    }
+    return path.toString();
+  }
+
+  /**
+   * Updates the index for a path that has been created, modified, or deleted.  When the path is no longer a file,
+   * anything indexed beneath it is also removed, in case it was a deleted directory.
+   *
+   * @param  path  The book-relative path
+   */
+  void update(String path) {
+    Set<String> set = paths;
+    for (File directory : directories) {
+      java.nio.file.Path file = directory.toPath().resolve(path.substring(1));
+      try {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attrs.isRegularFile()) {
+          set.add(path);
+          return;
+        }
+      } catch (NoSuchFileException e) {
+        // Look in next directory
+      } catch (IOException e) {
+        logger.log(Level.FINE, "Unable to read resource attributes: " + file, e);
+      }
+    }
+    set.remove(path);
+    String prefix = path + '/';
+    set.removeIf(key -> key.startsWith(prefix));
+  }
+}
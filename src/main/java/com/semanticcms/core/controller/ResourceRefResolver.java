@@ -83,62 +83,89 @@ public final class ResourceRefResolver {
       if (domain != null && book == null) {
         throw new IllegalArgumentException("book is required when domain is provided.");
       }
-      SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
-      if (book == null) {
-        assert domain == null;
-        // When book not provided, path is relative to current page
-        String currentPagePath = Dispatcher.getCurrentPagePath(request);
-        // TODO: get local book distinct from get published book, for local content that is not published
-        Book currentBook = semanticCms.getPublishedBook(currentPagePath);
-        if (currentBook == null) {
-          throw new ServletException("book attribute required when not in a book's content: " + currentPagePath);
-        }
-        BookRef currentBookRef = currentBook.getBookRef();
-        String bookPrefix = currentBookRef.getPrefix();
-        assert currentPagePath.startsWith(bookPrefix);
-        try {
-          return new ResourceRef(
-              currentBookRef,
-              Path.valueOf(
-                  URIResolver.getAbsolutePath(
-                      currentPagePath.substring(bookPrefix.length()),
-                      path
-                  )
-              )
-          );
-        } catch (ValidationException e) {
-          throw new ServletException(e);
+      // The current page is only used when either domain or book not provided
+      String currentPagePath = (domain == null || book == null) ? Dispatcher.getCurrentPagePath(request) : null;
+      ResolutionContext context = ResolutionContext.getInstance(request);
+      ResolutionContext.Key key;
+      if (context != null) {
+        key = new ResolutionContext.Key(currentPagePath, domain, book, path);
+        ResourceRef resourceRef = context.getResourceRef(key);
+        if (resourceRef != null) {
+          return resourceRef;
         }
       } else {
-        if (!path.startsWith("/")) {
-          throw new ServletException("When book provided, path must begin with a slash (/): " + path);
-        }
-        // domain of current page when domain not provided
-        if (domain == null) {
-          String currentPagePath = Dispatcher.getCurrentPagePath(request);
-          // TODO: get local book distinct from get published book, for local content that is not published
-          Book currentBook = semanticCms.getPublishedBook(currentPagePath);
-          if (currentBook == null) {
-            throw new ServletException("domain attribute required when not in a book's content: " + currentPagePath);
-          }
-          domain = currentBook.getBookRef().getDomain();
-        }
-        BookRef bookRef = new BookRef(domain, book);
-        // Make sure book exists
-        try {
-          return new ResourceRef(
-              semanticCms.getBook(bookRef).getBookRef(), // Use BookRef from Book, since it is a shared long-lived object
-              Path.valueOf(path)
-          );
-        } catch (NoSuchElementException e) {
-          throw new ServletException("Reference to missing book not allowed: " + bookRef, e);
-        }
+        key = null;
       }
+      ResourceRef resourceRef = resolveResourceRef(servletContext, context, currentPagePath, domain, book, path);
+      if (context != null) {
+        context.putResourceRef(key, resourceRef);
+      }
+      return resourceRef;
     } catch (ValidationException e) {
       throw new ServletException(e);
     }
   }
 
+  /**
+   * Resolves a {@link ResourceRef} without memoization.
+   *
+   * @param  context  Optional, used to memoize the published book lookup
+   */
+  private static ResourceRef resolveResourceRef(
+      ServletContext servletContext,
+      ResolutionContext context,
+      String currentPagePath,
+      DomainName domain,
+      Path book,
+      String path
+  ) throws ServletException, MalformedURLException, ValidationException {
+    SemanticCMS semanticCms = SemanticCMS.getInstance(servletContext);
+    if (book == null) {
+      assert domain == null;
+      // When book not provided, path is relative to current page
+      // TODO: get local book distinct from get published book, for local content that is not published
+      Book currentBook = ResolutionContext.getPublishedBook(context, semanticCms, currentPagePath);
+      if (currentBook == null) {
+        throw new ServletException("book attribute required when not in a book's content: " + currentPagePath);
+      }
+      BookRef currentBookRef = currentBook.getBookRef();
+      String bookPrefix = currentBookRef.getPrefix();
+      assert currentPagePath.startsWith(bookPrefix);
+      return new ResourceRef(
+          currentBookRef,
+          Path.valueOf(
+              URIResolver.getAbsolutePath(
+                  currentPagePath.substring(bookPrefix.length()),
+                  path
+              )
+          )
+      );
+    } else {
+      if (!path.startsWith("/")) {
+        throw new ServletException("When book provided, path must begin with a slash (/): " + path);
+      }
+      // domain of current page when domain not provided
+      if (domain == null) {
+        // TODO: get local book distinct from get published book, for local content that is not published
+        Book currentBook = ResolutionContext.getPublishedBook(context, semanticCms, currentPagePath);
+        if (currentBook == null) {
+          throw new ServletException("domain attribute required when not in a book's content: " + currentPagePath);
+        }
+        domain = currentBook.getBookRef().getDomain();
+      }
+      BookRef bookRef = new BookRef(domain, book);
+      // Make sure book exists
+      try {
+        return new ResourceRef(
+            semanticCms.getBook(bookRef).getBookRef(), // Use BookRef from Book, since it is a shared long-lived object
+            Path.valueOf(path)
+        );
+      } catch (NoSuchElementException e) {
+        throw new ServletException("Reference to missing book not allowed: " + bookRef, e);
+      }
+    }
+  }
+
   /**
    * Gets a {@link ResourceRef} in the current {@link PageContext page context}.
    *
@@ -42,12 +42,17 @@ import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -125,13 +130,79 @@ public class SemanticCMS {
             && Boolean.parseBoolean(servletContext.getInitParameter(CONCURRENT_SUBREQUESTS_INIT_PARAM));
     this.rootBook = initBooks();
     this.executors = new Executors();
+    this.concurrencyLimit = new AdaptiveConcurrencyLimit(executors.getPreferredConcurrency());
+    String captureCoalescingParam = servletContext.getInitParameter(CAPTURE_COALESCING_INIT_PARAM);
+    this.captureCoalescer = new CaptureCoalescer(
+        this,
+        captureCoalescingParam == null
+            || (captureCoalescingParam = captureCoalescingParam.trim()).isEmpty()
+            || Boolean.parseBoolean(captureCoalescingParam)
+    );
+    String sharedCacheHardTtlParam = servletContext.getInitParameter(SHARED_CACHE_HARD_TTL_INIT_PARAM);
+    long sharedCacheHardTtl =
+        (sharedCacheHardTtlParam == null || (sharedCacheHardTtlParam = sharedCacheHardTtlParam.trim()).isEmpty())
+            ? 0
+            : Long.parseLong(sharedCacheHardTtlParam);
+    String sharedCacheSoftTtlParam = servletContext.getInitParameter(SHARED_CACHE_SOFT_TTL_INIT_PARAM);
+    long sharedCacheSoftTtl =
+        (sharedCacheSoftTtlParam == null || (sharedCacheSoftTtlParam = sharedCacheSoftTtlParam.trim()).isEmpty())
+            ? (sharedCacheHardTtl / 2)
+            : Long.parseLong(sharedCacheSoftTtlParam);
+    this.sharedCaptureCache = new SharedCaptureCache(this, sharedCacheSoftTtl, sharedCacheHardTtl);
+    String notFoundCacheTtlParam = servletContext.getInitParameter(NOT_FOUND_CACHE_TTL_INIT_PARAM);
+    this.notFoundCache = new NotFoundCache(
+        (notFoundCacheTtlParam == null || (notFoundCacheTtlParam = notFoundCacheTtlParam.trim()).isEmpty())
+            ? 0
+            : Long.parseLong(notFoundCacheTtlParam)
+    );
+    String cachePoolSizeParam = servletContext.getInitParameter(CACHE_POOL_SIZE_INIT_PARAM);
+    this.cachePool = new CachePool(
+        (cachePoolSizeParam == null || (cachePoolSizeParam = cachePoolSizeParam.trim()).isEmpty())
+            ? 0
+            : Integer.parseInt(cachePoolSizeParam)
+    );
+    String resourceExtensionsParam = servletContext.getInitParameter(RESOURCE_EXTENSIONS_INIT_PARAM);
+    this.resourceExtensions = parseResourceExtensions(
+        resourceExtensionsParam == null ? DEFAULT_RESOURCE_EXTENSIONS : resourceExtensionsParam
+    );
+    this.resourceIndexes =
+        Boolean.parseBoolean(servletContext.getInitParameter(RESOURCE_INDEX_INIT_PARAM))
+            ? initResourceIndexes()
+            : Collections.emptyMap();
+    this.captureTrace = Boolean.parseBoolean(servletContext.getInitParameter(CAPTURE_TRACE_INIT_PARAM));
+    String captureTraceThresholdParam = servletContext.getInitParameter(CAPTURE_TRACE_THRESHOLD_INIT_PARAM);
+    this.captureTraceThreshold =
+        (captureTraceThresholdParam == null || (captureTraceThresholdParam = captureTraceThresholdParam.trim()).isEmpty())
+            ? DEFAULT_CAPTURE_TRACE_THRESHOLD
+            : Long.parseLong(captureTraceThresholdParam);
+    String captureTimeoutParam = servletContext.getInitParameter(CAPTURE_TIMEOUT_INIT_PARAM);
+    if (captureTimeoutParam == null || (captureTimeoutParam = captureTimeoutParam.trim()).isEmpty()) {
+      this.captureTimeout = 0;
+    } else {
+      long millis = Long.parseLong(captureTimeoutParam);
+      if (millis < 0) {
+        throw new IllegalArgumentException(CAPTURE_TIMEOUT_INIT_PARAM + " < 0: " + millis);
+      }
+      this.captureTimeout = millis;
+    }
+    // Started last, once all parameters are parsed and validated, since its thread is only stopped by destroy()
+    this.bookChangeMonitor =
+        Boolean.parseBoolean(servletContext.getInitParameter(WATCH_SOURCES_INIT_PARAM)) || !resourceIndexes.isEmpty()
+            ? new BookChangeMonitor(books.values(), this::pageChanged, this::fileCreated, this::fileChanged, this::allPagesChanged)
+            : null;
   }
 
   /**
    * Called when the context is shutting down.
    */
   protected void destroy() {
-    // Do nothing
+    if (bookChangeMonitor != null) {
+      try {
+        bookChangeMonitor.close();
+      } catch (IOException e) {
+        servletContext.log("Unable to close book change monitor", e);
+      }
+    }
   }
   // </editor-fold>
 
@@ -513,6 +584,341 @@ public class SemanticCMS {
   public Executors getExecutors() {
     return executors;
   }
+
+  private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+  /**
+   * Gets the overall concurrency limit, which adapts to the observed executor load.
+   *
+   * @see  ConcurrencyCoordinator#getConcurrencyBudget(jakarta.servlet.ServletRequest)
+   */
+  AdaptiveConcurrencyLimit getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  /**
+   * Initialization parameter, in milliseconds, that limits the total time spent capturing pages for a single
+   * top-level request.  Once exceeded, remaining captures and traversals abort with {@link CaptureCancelledException}.
+   * Defaults to "0", which is no timeout.
+   *
+   * @see  CaptureDeadline
+   */
+  private static final String CAPTURE_TIMEOUT_INIT_PARAM = SemanticCMS.class.getName() + ".captureTimeout";
+
+  private final long captureTimeout;
+
+  /**
+   * Gets the capture timeout in milliseconds, or {@code 0} for no timeout.
+   */
+  long getCaptureTimeout() {
+    return captureTimeout;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Metrics">
+  private volatile CaptureMetrics metrics = CaptureMetrics.NONE;
+
+  private volatile Instrumentation instrumentation = new Instrumentation(CaptureMetrics.NONE);
+
+  /**
+   * Gets the currently registered metrics.
+   */
+  public CaptureMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Registers the metrics that will receive capture pipeline measurements.
+   * Counters and histograms are resolved immediately.
+   *
+   * @param  metrics  The metrics or {@code null} to stop recording
+   */
+  public void setMetrics(CaptureMetrics metrics) {
+    if (metrics == null) {
+      metrics = CaptureMetrics.NONE;
+    }
+    Instrumentation newInstrumentation = new Instrumentation(metrics);
+    this.metrics = metrics;
+    this.instrumentation = newInstrumentation;
+    executors.setInstrumentation(newInstrumentation);
+  }
+
+  /**
+   * Gets the counters and histograms resolved from the current {@link #getMetrics() metrics}.
+   */
+  Instrumentation getInstrumentation() {
+    return instrumentation;
+  }
+
+  /**
+   * Initialization parameter, that when set to "true" will record a {@link CaptureTrace} for every request.
+   * This is intended for diagnosing slow pages and is off by default.
+   */
+  private static final String CAPTURE_TRACE_INIT_PARAM = SemanticCMS.class.getName() + ".captureTrace";
+
+  /**
+   * Initialization parameter, in milliseconds, of the minimum request time that will log its {@link CaptureTrace}.
+   */
+  private static final String CAPTURE_TRACE_THRESHOLD_INIT_PARAM = SemanticCMS.class.getName() + ".captureTraceThreshold";
+
+  private static final long DEFAULT_CAPTURE_TRACE_THRESHOLD = 1000;
+
+  private final boolean captureTrace;
+
+  private final long captureTraceThreshold;
+
+  /**
+   * Checks if capture tracing is enabled.
+   */
+  boolean getCaptureTrace() {
+    return captureTrace;
+  }
+
+  /**
+   * Gets the minimum request time, in milliseconds, that will log its {@link CaptureTrace}.
+   */
+  long getCaptureTraceThreshold() {
+    return captureTraceThreshold;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Capture Coalescing">
+  /**
+   * Initialization parameter, that when set to "false" will disable the merging of identical in-flight captures
+   * across requests.  Enabled by default.
+   */
+  private static final String CAPTURE_COALESCING_INIT_PARAM = SemanticCMS.class.getName() + ".captureCoalescing";
+
+  private final CaptureCoalescer captureCoalescer;
+
+  /**
+   * Gets the application-wide coalescer of identical in-flight captures.
+   */
+  CaptureCoalescer getCaptureCoalescer() {
+    return captureCoalescer;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Shared Capture Cache">
+  /**
+   * Initialization parameter, in milliseconds, after which a shared capture is no longer used.
+   * Defaults to "0", which disables the shared capture cache.
+   */
+  private static final String SHARED_CACHE_HARD_TTL_INIT_PARAM = SemanticCMS.class.getName() + ".sharedCacheHardTtl";
+
+  /**
+   * Initialization parameter, in milliseconds, after which a shared capture is re-captured in the background.
+   * Defaults to half of the hard TTL.
+   */
+  private static final String SHARED_CACHE_SOFT_TTL_INIT_PARAM = SemanticCMS.class.getName() + ".sharedCacheSoftTtl";
+
+  private final SharedCaptureCache sharedCaptureCache;
+
+  /**
+   * Gets the application-wide cache of captures, which is disabled unless configured.
+   */
+  SharedCaptureCache getSharedCaptureCache() {
+    return sharedCaptureCache;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Not Found Cache">
+  /**
+   * Initialization parameter, in milliseconds, that a path with neither a page nor a resource is remembered, and that
+   * a page is remembered to exist.
+   * Defaults to "0", which disables the not found cache.
+   */
+  private static final String NOT_FOUND_CACHE_TTL_INIT_PARAM = SemanticCMS.class.getName() + ".notFoundCacheTtl";
+
+  private final NotFoundCache notFoundCache;
+
+  /**
+   * Gets the application-wide cache of paths with neither a page nor a resource, which is disabled unless configured.
+   */
+  NotFoundCache getNotFoundCache() {
+    return notFoundCache;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Cache Pool">
+  /**
+   * Initialization parameter, the maximum number of idle request caches kept for reuse.
+   * Defaults to "0", which disables the pool.
+   * Only enable when no application code retains a {@link Cache} beyond its request.
+   */
+  private static final String CACHE_POOL_SIZE_INIT_PARAM = SemanticCMS.class.getName() + ".cachePoolSize";
+
+  private final CachePool cachePool;
+
+  /**
+   * Gets the pool of request caches, which is disabled unless configured.
+   */
+  CachePool getCachePool() {
+    return cachePool;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Resource Classification">
+  /**
+   * Initialization parameter, a comma and/or space separated list of file extensions that are looked up as resources
+   * before attempting to capture a page.  Set to an empty value to always attempt a capture first.
+   */
+  private static final String RESOURCE_EXTENSIONS_INIT_PARAM = SemanticCMS.class.getName() + ".resourceExtensions";
+
+  private static final String DEFAULT_RESOURCE_EXTENSIONS =
+      "css js map png jpg jpeg gif svg ico webp avif bmp tif tiff"
+          + " woff woff2 ttf otf eot"
+          + " pdf zip gz tgz bz2 xz 7z jar war tar"
+          + " mp3 mp4 m4a ogg oga ogv webm wav avi mov"
+          + " txt csv dia odg odt ods doc docx xls xlsx ppt pptx";
+
+  private final Set<String> resourceExtensions;
+
+  private static Set<String> parseResourceExtensions(String param) {
+    Set<String> extensions = new HashSet<>();
+    for (String extension : param.split("[\\s,]+")) {
+      if (extension.startsWith(".")) {
+        extension = extension.substring(1);
+      }
+      if (!extension.isEmpty()) {
+        extensions.add(extension.toLowerCase(Locale.ROOT));
+      }
+    }
+    return Collections.unmodifiableSet(extensions);
+  }
+
+  /**
+   * Checks if a path is classified as a resource by its file extension, in which case an existing resource is served
+   * directly from the book resources without attempting to capture a page.  When no resource exists, the page is
+   * captured as usual.  A path is never classified as a resource when a
+   * renderer with a non-empty suffix matches it, so renderers such as ".pdf" still render pages.
+   *
+   * @see  #getRendererAndPath(com.aoapps.net.Path)
+   */
+  public boolean isResourcePath(Path path) {
+    if (resourceExtensions.isEmpty()) {
+      return false;
+    }
+    final String pathStr = path.toString();
+    int dot = pathStr.lastIndexOf('.');
+    // Must have an extension, and not be only an extension such as "/.htaccess"
+    if (dot <= pathStr.lastIndexOf('/') + 1 || dot == pathStr.length() - 1) {
+      return false;
+    }
+    if (!resourceExtensions.contains(pathStr.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+      return false;
+    }
+    synchronized (renderers) {
+      for (String suffix : renderers.keySet()) {
+        if (!suffix.isEmpty() && pathStr.endsWith(suffix)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Change Monitoring">
+  /**
+   * Initialization parameter, that when set to "true" will watch the resource directories of each book for changes
+   * to page sources.  Disabled by default.  Always watched when the {@link ResourceIndex} is enabled.
+   */
+  private static final String WATCH_SOURCES_INIT_PARAM = SemanticCMS.class.getName() + ".watchSources";
+
+  private final BookChangeMonitor bookChangeMonitor;
+
+  /**
+   * Gets the monitor of page source changes.
+   *
+   * @return  The monitor or {@code null} when not watching sources
+   */
+  BookChangeMonitor getBookChangeMonitor() {
+    return bookChangeMonitor;
+  }
+
+  /**
+   * Called by the {@link BookChangeMonitor} when a page source has been created, modified, or deleted.
+   */
+  private void pageChanged(PageRef pageRef) {
+    sharedCaptureCache.invalidate(pageRef);
+    notFoundCache.invalidate(pageRef);
+  }
+
+  /**
+   * Called by the {@link BookChangeMonitor} when any file has been created in a book.
+   */
+  private void fileCreated(BookRef bookRef) {
+    notFoundCache.invalidate(bookRef);
+  }
+
+  /**
+   * Called by the {@link BookChangeMonitor} when any file has been created, modified, or deleted in a book.
+   */
+  private void fileChanged(BookRef bookRef, String path) {
+    ResourceIndex resourceIndex = resourceIndexes.get(bookRef);
+    if (resourceIndex != null) {
+      resourceIndex.update(path);
+    }
+  }
+
+  /**
+   * Called by the {@link BookChangeMonitor} when changes may have been missed.
+   */
+  private void allPagesChanged() {
+    sharedCaptureCache.clear();
+    notFoundCache.clear();
+    for (ResourceIndex resourceIndex : resourceIndexes.values()) {
+      resourceIndex.rebuild();
+    }
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Resource Index">
+  /**
+   * Initialization parameter, that when set to "true" will index the files in the resource directories of each book
+   * in memory, so resources are found without probing each directory.  Disabled by default.
+   */
+  private static final String RESOURCE_INDEX_INIT_PARAM = SemanticCMS.class.getName() + ".resourceIndex";
+
+  /**
+   * The resource index of each book with resource directories, empty when disabled.
+   */
+  private final Map<BookRef, ResourceIndex> resourceIndexes;
+
+  private Map<BookRef, ResourceIndex> initResourceIndexes() {
+    Map<BookRef, ResourceIndex> indexes = new HashMap<>();
+    for (Book book : books.values()) {
+      if (book instanceof ServletBook) {
+        ServletBook servletBook = (ServletBook) book;
+        List<File> directories = servletBook.getResourceDirectories();
+        if (!directories.isEmpty()) {
+          indexes.put(book.getBookRef(), new ResourceIndex(book.getBookRef(), directories, servletBook.getServletResources()));
+        }
+      }
+    }
+    return Collections.unmodifiableMap(indexes);
+  }
+
+  /**
+   * Gets the in-memory index of the resource directories of a book.
+   *
+   * @return  The index or {@code null} when not enabled or the book has no resource directories
+   */
+  ResourceIndex getResourceIndex(BookRef bookRef) {
+    return resourceIndexes.get(bookRef);
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Page Reference Pool">
+  private final PageRefPool pageRefPool = new PageRefPool();
+
+  /**
+   * Gets the application-wide pool of canonical page references.
+   */
+  PageRefPool getPageRefPool() {
+    return pageRefPool;
+  }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Renderers">
@@ -39,6 +39,7 @@ import com.semanticcms.core.pages.jsp.JspPageRepository;
 import com.semanticcms.core.pages.jspx.JspxPageRepository;
 import com.semanticcms.core.pages.servlet.ServletPageRepository;
 import com.semanticcms.core.pages.union.UnionPageRepository;
+import com.semanticcms.core.resources.ResourceConnection;
 import com.semanticcms.core.resources.ResourceStore;
 import com.semanticcms.core.resources.servlet.ServletResourceStore;
 import com.semanticcms.resources.filesystem.FilesystemResourceStore;
@@ -48,6 +49,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -67,6 +69,10 @@ public class ServletBook extends Book {
 
   private static final String PARAM_PREFIX = "param.";
 
+  private static final String PAGE_SOURCE_INDEX = "index";
+
+  private static final String[] PAGE_SOURCE_EXTENSIONS = {".jspx", ".jsp"};
+
   private final Set<ParentRef> unmodifiableParentRefs;
   private final PageRef contentRoot;
   private final Copyright copyright;
@@ -76,6 +82,8 @@ public class ServletBook extends Book {
   private final Map<String, String> unmodifiableParam;
 
   private final PageRepository pages;
+  private final List<File> unmodifiableResourceDirectories;
+  private final ServletResourceStore servletResources;
   private final ResourceStore resources;
 
   private static String getCanonicalBase(Properties bookProps) {
@@ -215,8 +223,10 @@ public class ServletBook extends Book {
     );
 
     ServletResourceStore servletStore = ServletResourceStore.getInstance(servletContext, this.bookRef.getPath());
+    servletResources = servletStore;
     // Find the optional resource directory
     if (resourceDirectories == null || resourceDirectories.isEmpty()) {
+      unmodifiableResourceDirectories = Collections.emptyList();
       resources = servletStore;
     } else {
       List<File> directories = new ArrayList<>(resourceDirectories.size());
@@ -230,6 +240,7 @@ public class ServletBook extends Book {
         // TODO: Require resourceDirectory directory exists and is readable for books.xml in dev mode.
         directories.add(directory);
       }
+      unmodifiableResourceDirectories = AoCollections.optimalUnmodifiableList(directories);
       List<ResourceStore> resourceStores = new ArrayList<>(directories.size() + 1);
       for (File directory : directories) {
         resourceStores.add(FilesystemResourceStore.getInstance(directory));
@@ -255,6 +266,22 @@ public class ServletBook extends Book {
     return resources;
   }
 
+  /**
+   * Gets the optional resource directories of this book, in search order, which may contain the page sources.
+   */
+  @SuppressWarnings("ReturnOfCollectionOrArrayField") // Returning unmodifiable
+  List<File> getResourceDirectories() {
+    return unmodifiableResourceDirectories;
+  }
+
+  /**
+   * Gets the resources of this book within the servlet context, which are searched after all
+   * {@linkplain #getResourceDirectories() resource directories}.
+   */
+  ServletResourceStore getServletResources() {
+    return servletResources;
+  }
+
   // TODO: Move to resource store
   // private volatile File resourceFile;
   // // TODO: Is this cached too long now that we have higher-level caching strategies?
@@ -315,10 +342,35 @@ public class ServletBook extends Book {
   // }
 
   /**
-   * TODO: Look for index.jspx, index.jsp.  In a per-book registered, extensible way?
+   * Looks for the "*.jspx" then "*.jsp" source of the page in this book's resources, with a page ending in a slash
+   * looking for "index.jspx" then "index.jsp".
+   *
+   * <p>TODO: In a per-book registered, extensible way?</p>
+   *
+   * @return  The {@link ResourceRef} or {@code null} when no source found
    */
   @Override
-  public ResourceRef getPageSource(PageRef pageRef) {
+  public ResourceRef getPageSource(PageRef pageRef) throws IOException {
+    if (!pageRef.getBookRef().equals(bookRef)) {
+      return null;
+    }
+    String path = pageRef.getPath().toString();
+    if (path.endsWith("/")) {
+      path += PAGE_SOURCE_INDEX;
+    }
+    for (String extension : PAGE_SOURCE_EXTENSIONS) {
+      Path sourcePath;
+      try {
+        sourcePath = Path.valueOf(path + extension);
+      } catch (ValidationException e) {
+        throw new IOException(e);
+      }
+      try (ResourceConnection conn = resources.getResource(sourcePath).open()) {
+        if (conn.exists()) {
+          return new ResourceRef(bookRef, sourcePath);
+        }
+      }
+    }
     return null;
   }
 
@@ -0,0 +1,319 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import com.semanticcms.core.model.ChildRef;
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.model.ParentRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An application-wide cache of META and PAGE captures with stale-while-revalidate semantics.
+ * This generalizes the fixed TTL of the export cache in {@link CacheFilter} to all requests.
+ *
+ * <p>A capture younger than the soft TTL is used directly.  A capture past its soft TTL but younger than its hard TTL
+ * is used immediately while a single background task re-captures the page through the {@link Executors}.
+ * A capture past its hard TTL is not used, and the page is captured synchronously.</p>
+ *
+ * <p>Background re-captures are not tied to the request that found the stale capture.  They are performed on an
+ * unmodifiable copy of that request, with their own temporary files, so the request completes without waiting.</p>
+ *
+ * <p>When {@link BookChangeMonitor} is enabled, changed pages are removed along with their parents and children.
+ * Each invalidation advances a generation, and any capture started in an earlier generation is discarded instead
+ * of being added, so a capture in progress during a change cannot restore the previous page.</p>
+ *
+ * <p>Captures past their hard TTL are evicted periodically as captures are added.  The number of pages is bounded,
+ * beyond which new pages are not shared until existing captures expire.</p>
+ *
+ * <p>Only found pages are shared.  BODY captures are never shared.</p>
+ *
+ * <p>Disabled by default, enabled by setting the context init parameter
+ * "{@code com.semanticcms.core.controller.SemanticCMS.sharedCacheHardTtl}" to a positive number of milliseconds.
+ * The soft TTL is set by "{@code com.semanticcms.core.controller.SemanticCMS.sharedCacheSoftTtl}" and defaults to
+ * half of the hard TTL.</p>
+ *
+ * <p>TODO: Consider consequences of caching once we have a security model applied</p>
+ *
+ * @see  SemanticCMS#getSharedCaptureCache()
+ */
+final class SharedCaptureCache {
+
+  /**
+   * The maximum number of pages shared.  Once full, new pages are not shared until expired captures are evicted.
+   */
+  private static final int MAX_SIZE = 100000;
+
+  /**
+   * The number of captures added between each eviction of expired captures.  Evictions are only triggered by this
+   * count, so a full cache does not scan all pages on every put.
+   */
+  private static final int EVICTION_INTERVAL = 1024;
+
+  /**
+   * One shared capture.
+   */
+  static final class Captured {
+
+    final Page page;
+
+    /**
+     * The {@link System#nanoTime()} this page was captured.
+     */
+    private final long capturedTime;
+
+    /**
+     * Set once a re-capture has been started, so only one re-capture is performed per stale capture.
+     */
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    private Captured(Page page, long capturedTime) {
+      this.page = page;
+      this.capturedTime = capturedTime;
+    }
+  }
+
+  /**
+   * Holds the META and PAGE captures of one page.
+   */
+  private static final class Entry {
+    private volatile Captured meta;
+    private volatile Captured page;
+  }
+
+  private final SemanticCMS semanticCms;
+
+  private final long softTtlNanos;
+
+  private final long hardTtlNanos;
+
+  private final ConcurrentMap<PageRef, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Advanced by each invalidation.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Counts the captures added since the last eviction.
+   */
+  private final AtomicInteger putsSinceEviction = new AtomicInteger();
+
+  /**
+   * @param  softTtl  the soft TTL in milliseconds
+   * @param  hardTtl  the hard TTL in milliseconds or {@code 0} to disable
+   */
+  SharedCaptureCache(SemanticCMS semanticCms, long softTtl, long hardTtl) {
+    if (softTtl < 0) {
+      throw new IllegalArgumentException("softTtl < 0: " + softTtl);
+    }
+    if (hardTtl < 0) {
+      throw new IllegalArgumentException("hardTtl < 0: " + hardTtl);
+    }
+    if (softTtl > hardTtl) {
+      throw new IllegalArgumentException("softTtl > hardTtl: " + softTtl + " > " + hardTtl);
+    }
+    this.semanticCms = semanticCms;
+    this.softTtlNanos = TimeUnit.MILLISECONDS.toNanos(softTtl);
+    this.hardTtlNanos = TimeUnit.MILLISECONDS.toNanos(hardTtl);
+  }
+
+  /**
+   * Checks if the shared cache is enabled.
+   */
+  boolean isEnabled() {
+    return hardTtlNanos != 0;
+  }
+
+  /**
+   * Gets a capture younger than its hard TTL, using a META capture in place of a PAGE capture when available.
+   *
+   * @return  the capture or {@code null} when not cached or past its hard TTL
+   */
+  Captured get(PageRef pageRef, CaptureLevel level) {
+    assert isEnabled();
+    assert level != CaptureLevel.BODY;
+    Entry entry = entries.get(pageRef);
+    Captured captured;
+    if (entry == null) {
+      captured = null;
+    } else {
+      long now = System.nanoTime();
+      captured = usable(entry.meta, now);
+      if (captured == null && level == CaptureLevel.PAGE) {
+        captured = usable(entry.page, now);
+      }
+    }
+    Instrumentation instrumentation = semanticCms.getInstrumentation();
+    if (captured == null) {
+      instrumentation.sharedCacheMisses.increment();
+    } else if (isStale(captured)) {
+      instrumentation.sharedCacheStale.increment();
+    } else {
+      instrumentation.sharedCacheHits.increment();
+    }
+    return captured;
+  }
+
+  private Captured usable(Captured captured, long now) {
+    return (captured != null && (now - captured.capturedTime) < hardTtlNanos) ? captured : null;
+  }
+
+  /**
+   * Checks if the given capture is past its soft TTL.
+   */
+  boolean isStale(Captured captured) {
+    return (System.nanoTime() - captured.capturedTime) >= softTtlNanos;
+  }
+
+  /**
+   * Claims the re-capture of a stale capture.
+   *
+   * @return  {@code true} when the caller must start the re-capture, or {@code false} when already started
+   */
+  boolean startRevalidation(Captured captured) {
+    return captured.revalidating.compareAndSet(false, true);
+  }
+
+  /**
+   * Releases the claim on the re-capture of a stale capture, such as when the re-capture was discarded, so a later
+   * request may start another.
+   */
+  void endRevalidation(Captured captured) {
+    captured.revalidating.set(false);
+  }
+
+  /**
+   * Gets the current generation, which must be obtained before starting a capture that will be added by
+   * {@link #put(com.semanticcms.core.model.PageRef, com.semanticcms.core.pages.CaptureLevel, com.semanticcms.core.model.Page, long)}.
+   */
+  long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Adds or replaces a capture.  Pages that do not exist are not shared, and remove any previous capture.
+   * New entries are keyed by the canonical instance from {@link SemanticCMS#getPageRefPool()}.
+   *
+   * @param  generation  the {@linkplain #getGeneration() generation} when the capture was started
+   *
+   * @return  {@code false} when discarded since an invalidation happened after the capture was started
+   */
+  boolean put(PageRef pageRef, CaptureLevel level, Page page, long generation) {
+    assert isEnabled();
+    if (this.generation.get() != generation) {
+      return false;
+    }
+    Entry entry;
+    Captured captured;
+    if (page != null) {
+      // Only the thread reaching the interval evicts
+      if (putsSinceEviction.incrementAndGet() == EVICTION_INTERVAL) {
+        evictExpired();
+      }
+      entry = entries.get(pageRef);
+      if (entry == null) {
+        if (entries.size() >= MAX_SIZE) {
+          return true;
+        }
+        entry = entries.computeIfAbsent(semanticCms.getPageRefPool().intern(pageRef), key -> new Entry());
+      }
+      captured = new Captured(page, System.nanoTime());
+    } else {
+      entry = entries.get(pageRef);
+      if (entry == null) {
+        return true;
+      }
+      captured = null;
+    }
+    if (level == CaptureLevel.PAGE) {
+      entry.page = captured;
+    } else if (level == CaptureLevel.META) {
+      entry.meta = captured;
+    } else {
+      throw new AssertionError("Unexpected level: " + level);
+    }
+    if (this.generation.get() != generation) {
+      // Invalidated while being added, remove unless already replaced
+      if (level == CaptureLevel.PAGE) {
+        if (entry.page == captured) {
+          entry.page = null;
+        }
+      } else {
+        if (entry.meta == captured) {
+          entry.meta = null;
+        }
+      }
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Removes all pages with no capture younger than the hard TTL.
+   */
+  private void evictExpired() {
+    putsSinceEviction.set(0);
+    long now = System.nanoTime();
+    entries.values().removeIf(entry -> usable(entry.meta, now) == null && usable(entry.page, now) == null);
+  }
+
+  /**
+   * Removes the captures of a changed page, along with the captures of its parents and children since their
+   * navigation may include this page.
+   */
+  void invalidate(PageRef pageRef) {
+    generation.incrementAndGet();
+    Entry entry = entries.remove(pageRef);
+    if (entry != null) {
+      invalidateRelated(entry.meta);
+      invalidateRelated(entry.page);
+    }
+  }
+
+  private void invalidateRelated(Captured captured) {
+    if (captured != null) {
+      for (ParentRef parentRef : captured.page.getParentRefs()) {
+        entries.remove(parentRef.getPageRef());
+      }
+      for (ChildRef childRef : captured.page.getChildRefs()) {
+        entries.remove(childRef.getPageRef());
+      }
+    }
+  }
+
+  /**
+   * Removes all captures.
+   */
+  void clear() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+}
@@ -26,6 +26,8 @@ package com.semanticcms.core.controller;
 import com.aoapps.collections.AoCollections;
 import com.aoapps.lang.concurrent.CallableE;
 import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
 import jakarta.servlet.ServletException;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,20 +35,28 @@ import java.util.Map;
 /**
  * A page cache that is not thread safe and should only be used within the
  * context of a single thread.
+ *
+ * @see  CachePool
  */
 class SingleThreadCache extends MapCache {
 
-  private final Thread assertingThread;
+  private Thread assertingThread;
+
+  /**
+   * The map used to store attributes, allocated when first needed.
+   */
+  private Map<String, Object> attributes;
 
-  @SuppressWarnings("AssertWithSideEffects")
   SingleThreadCache(SemanticCMS semanticCms) {
-    super(
-        semanticCms,
-        new HashMap<>(),
-        VERIFY_CACHE_PARENT_CHILD_RELATIONSHIPS ? new HashMap<>() : null,
-        VERIFY_CACHE_PARENT_CHILD_RELATIONSHIPS ? new HashMap<>() : null,
-        new HashMap<>()
-    );
+    super(semanticCms, new OpenAddressingPageTable());
+    setAssertingThread();
+  }
+
+  /**
+   * Sets the thread allowed to use this cache to the current thread.  Called again when recycled.
+   */
+  @SuppressWarnings("AssertWithSideEffects")
+  final void setAssertingThread() {
     Thread t = null;
     // Intentional side-effect from assert
     assert (t = Thread.currentThread()) != null;
@@ -54,15 +64,33 @@ class SingleThreadCache extends MapCache {
   }
 
   @Override
-  CaptureResult get(CaptureKey key) {
+  protected Map<String, Object> getAttributes(boolean create) {
+    Map<String, Object> map = attributes;
+    if (map == null && create) {
+      map = new HashMap<>();
+      attributes = map;
+    }
+    return map;
+  }
+
+  @Override
+  void clear() {
+    assert assertingThread == Thread.currentThread();
+    super.clear();
+    // Release rather than clear, since attributes are typically few and may retain large values
+    attributes = null;
+  }
+
+  @Override
+  Page get(PageRef pageRef, CaptureLevel level) {
     assert assertingThread == Thread.currentThread();
-    return super.get(key);
+    return super.get(pageRef, level);
   }
 
   @Override
-  void put(CaptureKey key, Page page) throws ServletException {
+  void put(PageRef pageRef, CaptureLevel level, Page page) throws ServletException {
     assert assertingThread == Thread.currentThread();
-    super.put(key, page);
+    super.put(pageRef, level, page);
   }
 
   @Override
@@ -51,4 +51,6 @@ module com.semanticcms.core.controller {
   // Java SE
   requires java.logging;
   requires java.xml;
+  // JDK
+  requires jdk.jfr;
 }
@@ -0,0 +1,101 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * Contention benchmark of the per-request export cache check in {@link CacheFilter}, at high thread counts.
+ * Compares the lock-free check with the same check performed while holding a single shared lock, as was done before.
+ * The results are printed; the test only fails if a thread fails or the run takes far longer than expected.
+ */
+public class CacheFilterContentionTest {
+
+  private static final int[] THREAD_COUNTS = {1, 8, 64, 256};
+
+  private static final int ITERATIONS_PER_THREAD = 200000;
+
+  /**
+   * Runs the given check from each of the given number of threads.
+   *
+   * @return  The number of checks per second
+   */
+  private static double run(int threads, Runnable check) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    for (int i = 0; i < threads; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          for (int j = 0; j < ITERATIONS_PER_THREAD; j++) {
+            check.run();
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        } finally {
+          done.countDown();
+        }
+      });
+      thread.setDaemon(true);
+      thread.start();
+    }
+    long startTime = System.nanoTime();
+    start.countDown();
+    done.await();
+    long nanos = System.nanoTime() - startTime;
+    assertEquals(null, failure.get());
+    return (double) threads * ITERATIONS_PER_THREAD * TimeUnit.SECONDS.toNanos(1) / nanos;
+  }
+
+  @Test(timeout = 300000)
+  public void testContention() throws InterruptedException {
+    CacheFilter filter = new CacheFilter();
+    Object lock = new Object();
+    Runnable lockFree = filter::cleanupExportCache;
+    Runnable locked = () -> {
+      synchronized (lock) {
+        filter.cleanupExportCache();
+      }
+    };
+    // Warm-up
+    run(8, lockFree);
+    run(8, locked);
+    for (int threads : THREAD_COUNTS) {
+      double lockFreeRate = run(threads, lockFree);
+      double lockedRate = run(threads, locked);
+      System.out.printf(
+          "CacheFilter export cache check, %d threads: lock-free %.0f/s, locked %.0f/s%n",
+          threads,
+          lockFreeRate,
+          lockedRate
+      );
+    }
+  }
+}
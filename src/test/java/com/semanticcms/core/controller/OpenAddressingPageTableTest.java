@@ -0,0 +1,144 @@
+/*
+ * semanticcms-core-controller - Serves SemanticCMS content from a Servlet environment.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of semanticcms-core-controller.
+ *
+ * semanticcms-core-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * semanticcms-core-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with semanticcms-core-controller.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.semanticcms.core.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.aoapps.lang.validation.ValidationException;
+import com.aoapps.net.Path;
+import com.semanticcms.core.model.BookRef;
+import com.semanticcms.core.model.Page;
+import com.semanticcms.core.model.PageRef;
+import com.semanticcms.core.pages.CaptureLevel;
+import org.junit.Test;
+
+/**
+ * Tests {@link OpenAddressingPageTable}.
+ */
+public class OpenAddressingPageTableTest {
+
+  /**
+   * Enough keys for the table to grow well beyond 65536 positions.
+   */
+  private static final int NUM_KEYS = 150000;
+
+  private static BookRef newBookRef() throws ValidationException {
+    return new BookRef(BookRef.DEFAULT_DOMAIN, Path.valueOf("/book"));
+  }
+
+  private static PageRef[] newPageRefs(BookRef bookRef, int count) throws ValidationException {
+    PageRef[] pageRefs = new PageRef[count];
+    for (int i = 0; i < count; i++) {
+      pageRefs[i] = new PageRef(bookRef, Path.valueOf("/page-" + i));
+    }
+    return pageRefs;
+  }
+
+  @Test
+  public void testEmpty() throws ValidationException {
+    OpenAddressingPageTable table = new OpenAddressingPageTable();
+    PageRef pageRef = new PageRef(newBookRef(), Path.valueOf("/"));
+    assertNull(table.get(pageRef, CaptureLevel.META));
+    assertNull(table.get(pageRef, CaptureLevel.PAGE));
+    assertEquals(0, table.size());
+  }
+
+  /**
+   * Would not complete in the time allowed if positions were taken from only part of the hash.
+   */
+  @Test(timeout = 60000)
+  public void testManyKeys() throws ValidationException {
+    OpenAddressingPageTable table = new OpenAddressingPageTable();
+    PageRef[] pageRefs = newPageRefs(newBookRef(), NUM_KEYS);
+    Page[] pages = new Page[NUM_KEYS];
+    for (int i = 0; i < NUM_KEYS; i++) {
+      pages[i] = new Page();
+      assertEquals(PageTable.ADDED_FIRST, table.putIfAbsent(pageRefs[i], CaptureLevel.META, pages[i]));
+    }
+    assertEquals(NUM_KEYS, table.size());
+    for (int i = 0; i < NUM_KEYS; i++) {
+      assertSame(pages[i], table.get(pageRefs[i], CaptureLevel.META));
+      // PAGE is satisfied by META
+      assertSame(pages[i], table.get(pageRefs[i], CaptureLevel.PAGE));
+    }
+  }
+
+  @Test
+  public void testEqualKeys() throws ValidationException {
+    BookRef bookRef = newBookRef();
+    PageRef[] pageRefs = newPageRefs(bookRef, NUM_KEYS);
+    PageRef[] equalPageRefs = newPageRefs(bookRef, NUM_KEYS);
+    OpenAddressingPageTable table = new OpenAddressingPageTable();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      table.putIfAbsent(pageRefs[i], CaptureLevel.PAGE, new Page());
+    }
+    for (int i = 0; i < NUM_KEYS; i++) {
+      assertSame(table.get(pageRefs[i], CaptureLevel.PAGE), table.get(equalPageRefs[i], CaptureLevel.PAGE));
+      assertNull(table.get(equalPageRefs[i], CaptureLevel.META));
+    }
+  }
+
+  @Test
+  public void testPutIfAbsent() throws ValidationException {
+    OpenAddressingPageTable table = new OpenAddressingPageTable();
+    PageRef pageRef = new PageRef(newBookRef(), Path.valueOf("/"));
+    Page meta = new Page();
+    Page page = new Page();
+    assertEquals(PageTable.ADDED_FIRST, table.putIfAbsent(pageRef, CaptureLevel.META, meta));
+    assertEquals(PageTable.NOT_ADDED, table.putIfAbsent(pageRef, CaptureLevel.META, new Page()));
+    assertEquals(PageTable.ADDED, table.putIfAbsent(pageRef, CaptureLevel.PAGE, page));
+    assertSame(meta, table.get(pageRef, CaptureLevel.META));
+    assertSame(page, table.get(pageRef, CaptureLevel.PAGE));
+    assertEquals(1, table.size());
+  }
+
+  @Test
+  public void testNotFound() throws ValidationException {
+    OpenAddressingPageTable table = new OpenAddressingPageTable();
+    PageRef pageRef = new PageRef(newBookRef(), Path.valueOf("/missing"));
+    table.putIfAbsent(pageRef, CaptureLevel.META, Cache.NOT_FOUND);
+    assertSame(Cache.NOT_FOUND, table.get(pageRef, CaptureLevel.PAGE));
+    assertNull(Cache.found(table.get(pageRef, CaptureLevel.PAGE)));
+  }
+
+  @Test
+  public void testClear() throws ValidationException {
+    OpenAddressingPageTable table = new OpenAddressingPageTable();
+    PageRef[] pageRefs = newPageRefs(newBookRef(), NUM_KEYS);
+    for (PageRef pageRef : pageRefs) {
+      table.putIfAbsent(pageRef, CaptureLevel.META, new Page());
+    }
+    table.clear();
+    assertEquals(0, table.size());
+    for (PageRef pageRef : pageRefs) {
+      assertNull(table.get(pageRef, CaptureLevel.META));
+    }
+    // Usable after released
+    Page page = new Page();
+    assertEquals(PageTable.ADDED_FIRST, table.putIfAbsent(pageRefs[0], CaptureLevel.META, page));
+    assertSame(page, table.get(pageRefs[0], CaptureLevel.META));
+  }
+}